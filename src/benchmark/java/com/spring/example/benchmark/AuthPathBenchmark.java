@@ -0,0 +1,106 @@
+package com.spring.example.benchmark;
+
+import com.spring.example.entity.User;
+import com.spring.example.repository.UserRepository;
+import com.spring.example.security.JwtAuthenticationFilter;
+import com.spring.example.security.JwtTokenProvider;
+import com.spring.example.security.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthPathBenchmark {
+
+    private static final int REVOKED_TOKENS = 10_000;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private ConfigurableApplicationContext context;
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private TokenRevocationStore tokenRevocationStore;
+    private User user;
+    private String accessToken;
+    private Claims claims;
+    private String revokedTokenId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("auth-path");
+        jwtTokenProvider = context.getBean(JwtTokenProvider.class);
+        jwtAuthenticationFilter = context.getBean(JwtAuthenticationFilter.class);
+        tokenRevocationStore = context.getBean(TokenRevocationStore.class);
+        user = context.getBean(UserRepository.class).findByUsername("admin").orElseThrow();
+        accessToken = jwtTokenProvider.generateToken(user);
+        claims = jwtTokenProvider.parseClaims(accessToken);
+
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < REVOKED_TOKENS; i++) {
+            tokenRevocationStore.revoke("revoked-" + i, expiresAt);
+        }
+        revokedTokenId = "revoked-" + (REVOKED_TOKENS / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtTokenProvider.getUsername(accessToken);
+    }
+
+    // a fresh request each time, otherwise OncePerRequestFilter skips the second pass
+    @Benchmark
+    public int filterAuthenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/users");
+        request.addHeader("Authorization", "Bearer " + accessToken);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtAuthenticationFilter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public boolean isRevokedLiveToken() {
+        return jwtTokenProvider.isRevoked(accessToken, claims);
+    }
+
+    @Benchmark
+    public boolean revocationStoreMiss() {
+        return tokenRevocationStore.isRevoked(claims.getId());
+    }
+
+    @Benchmark
+    public boolean revocationStoreHit() {
+        return tokenRevocationStore.isRevoked(revokedTokenId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.spring.example.benchmark;
+
+import com.spring.example.ExampleApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// boots the application against an in-memory H2 database so benchmarks need neither Oracle nor the network
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        return new SpringApplicationBuilder(ExampleApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn",
+                        "--app.search.index.enabled=false",
+                        "--app.revocation.log.enabled=false");
+    }
+}
@@ -0,0 +1,101 @@
+package com.spring.example.benchmark;
+
+import com.spring.example.entity.Role;
+import com.spring.example.entity.User;
+import com.spring.example.payload.request.RoleRequest;
+import com.spring.example.payload.request.SignUpRequest;
+import com.spring.example.payload.response.RoleResponse;
+import com.spring.example.payload.response.UserResponse;
+import com.spring.example.util.EntityMapper;
+import lombok.Data;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private SignUpRequest signUpRequest;
+    private RoleRequest roleRequest;
+    private User user;
+    private Role role;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        signUpRequest = new SignUpRequest();
+        signUpRequest.setName("somchai");
+        signUpRequest.setUsername("somchai");
+        signUpRequest.setEmail("somchai@example.com");
+        signUpRequest.setPassword("password");
+
+        roleRequest = new RoleRequest();
+        roleRequest.setName("AUDITOR");
+
+        role = new Role(2L, "USER");
+        user = new User(1L, "somchai", "somchai", "somchai@example.com", "{bcrypt}hash", 0L, Set.of(role));
+    }
+
+    @Benchmark
+    public User signUpRequestToUserCompiled() {
+        return EntityMapper.mapToEntity(signUpRequest, User.class);
+    }
+
+    @Benchmark
+    public User signUpRequestToUserModelMapper() {
+        return modelMapper.map(signUpRequest, User.class);
+    }
+
+    @Benchmark
+    public Role roleRequestToRoleCompiled() {
+        return EntityMapper.mapToEntity(roleRequest, Role.class);
+    }
+
+    @Benchmark
+    public Role roleRequestToRoleModelMapper() {
+        return modelMapper.map(roleRequest, Role.class);
+    }
+
+    @Benchmark
+    public UserResponse userToUserResponseCompiled() {
+        return EntityMapper.mapToResponse(user, UserResponse.class);
+    }
+
+    // ModelMapper cannot construct records, so it maps into a bean with the same properties as the former class-based response
+    @Benchmark
+    public UserView userToUserResponseModelMapper() {
+        return modelMapper.map(user, UserView.class);
+    }
+
+    @Benchmark
+    public RoleResponse roleToRoleResponseCompiled() {
+        return EntityMapper.mapToResponse(role, RoleResponse.class);
+    }
+
+    @Benchmark
+    public RoleView roleToRoleResponseModelMapper() {
+        return modelMapper.map(role, RoleView.class);
+    }
+
+    @Data
+    public static class UserView {
+        private Long id;
+        private String name;
+        private String username;
+        private String email;
+    }
+
+    @Data
+    public static class RoleView {
+        private Long id;
+        private String name;
+    }
+}
@@ -0,0 +1,67 @@
+package com.spring.example.benchmark;
+
+import com.spring.example.security.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtKeyRingBenchmark {
+
+    private static final String SECRET = "123456789101112131415161718192021222324252627282930313233343536373839404142434445464748";
+
+    private JwtKeyRing keyRing;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyRing = new JwtKeyRing("primary", SECRET, new String[0]);
+        token = signWithKeyRing();
+    }
+
+    @Benchmark
+    public String signWithDecodedKeyPerCall() {
+        return Jwts.builder()
+                .setSubject("admin")
+                .claim("roles", List.of("ADMIN"))
+                .setIssuedAt(new Date())
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+
+    @Benchmark
+    public String signWithKeyRing() {
+        return keyRing.builder()
+                .setSubject("admin")
+                .claim("roles", List.of("ADMIN"))
+                .setIssuedAt(new Date())
+                .compact();
+    }
+
+    @Benchmark
+    public Claims parseWithParserPerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims parseWithKeyRing() {
+        return keyRing.parser()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
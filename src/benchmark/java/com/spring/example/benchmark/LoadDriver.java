@@ -0,0 +1,305 @@
+package com.spring.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring.example.ExampleApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replays a sign-in, refresh, list, search and CRUD mix against the application and reports throughput and latency
+ * percentiles per endpoint. Without {@code url=} it starts the application itself with the perf profile.
+ * <p>
+ * mvn -Pbenchmark test-compile exec:java@load -Dexec.args="users=100000 concurrency=32 warmup=15 duration=60"
+ */
+public class LoadDriver {
+
+    private static final String PASSWORD = "password";
+    private static final String[] KEYWORDS = {"somchai", "kongkiat", "member12", "srisuk", "nguyen", "example.com", "ratana", "member9"};
+    private static final String[] SORT_KEYS = {"id", "name", "username", "created_date"};
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final AtomicBoolean recording = new AtomicBoolean();
+    private final String baseUrl;
+    private final int users;
+
+    private LoadDriver(String baseUrl, int users) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        for (String name : new String[]{"sign-in", "refresh", "list", "search", "get", "create", "find-created", "update", "delete"}) {
+            endpoints.put(name, new Endpoint(name));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            options.put(parts[0], parts.length > 1 ? parts[1] : "");
+        }
+        int users = Integer.parseInt(options.getOrDefault("users", "1000000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "15"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+
+        ConfigurableApplicationContext context = null;
+        String url = options.get("url");
+        if (url == null) {
+            context = new SpringApplicationBuilder(ExampleApplication.class)
+                    .profiles("perf")
+                    .run("--server.port=0", "--app.perf.seed.users=" + users, "--logging.level.root=warn");
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadDriver(url, users).run(concurrency, warmup, duration);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run(int concurrency, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.submit(() -> drive(running));
+            }
+            System.out.printf("Warming up for %d s with %d clients against %s%n", warmupSeconds, concurrency, baseUrl);
+            TimeUnit.SECONDS.sleep(warmupSeconds);
+            recording.set(true);
+            long started = System.nanoTime();
+            TimeUnit.SECONDS.sleep(durationSeconds);
+            recording.set(false);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+            running.set(false);
+            report(elapsedSeconds);
+        }
+    }
+
+    private void drive(AtomicBoolean running) {
+        Session session = new Session();
+        while (running.get() && !signIn(session)) {
+            sleepQuietly();
+        }
+        while (running.get()) {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < 5) {
+                signIn(session);
+            } else if (roll < 10) {
+                refresh(session);
+            } else if (roll < 45) {
+                list(session);
+            } else if (roll < 65) {
+                search(session);
+            } else if (roll < 80) {
+                get(session);
+            } else if (roll < 88) {
+                create(session);
+            } else if (roll < 95) {
+                update(session);
+            } else {
+                delete(session);
+            }
+        }
+    }
+
+    private boolean signIn(Session session) {
+        String username = "member" + ThreadLocalRandom.current().nextInt(users);
+        JsonNode body = send("sign-in", form("/v1/auth/sign-in", "username_or_email", username, "password", PASSWORD));
+        if (body == null) {
+            return false;
+        }
+        session.accessToken = body.path("access_token").asText();
+        session.refreshToken = body.path("refresh_token").asText();
+        return true;
+    }
+
+    private void refresh(Session session) {
+        JsonNode body = send("refresh", form("/v1/auth/refresh-token", "refresh_token", session.refreshToken));
+        if (body != null && body.hasNonNull("access_token")) {
+            session.accessToken = body.get("access_token").asText();
+        }
+    }
+
+    private void list(Session session) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String sortKey = SORT_KEYS[random.nextInt(SORT_KEYS.length)];
+        send("list", authorized(session, "/v1/users?page=" + random.nextInt(50) + "&size=20&filter=" + sortKey
+                + "&sort=" + (random.nextBoolean() ? "asc" : "desc")).GET());
+    }
+
+    private void search(Session session) {
+        String keyword = KEYWORDS[ThreadLocalRandom.current().nextInt(KEYWORDS.length)];
+        send("search", authorized(session, "/v1/users?size=20&search=" + encode(keyword)).GET());
+    }
+
+    private void get(Session session) {
+        send("get", authorized(session, "/v1/users/" + randomUserId()).GET());
+    }
+
+    private void create(Session session) {
+        String username = "load_" + UUID.randomUUID().toString().replace("-", "");
+        String json = "{\"name\":\"Load\",\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"" + PASSWORD + "\"}";
+        HttpRequest.Builder request = authorized(session, "/v1/users")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (send("create", request) != null) {
+            session.created.add(username);
+        }
+    }
+
+    private void update(Session session) {
+        HttpRequest.Builder request = authorized(session, "/v1/users/" + randomUserId())
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"Updated\"}"));
+        send("update", request);
+    }
+
+    // only users created by this client are deleted, so the seeded population stays intact
+    private void delete(Session session) {
+        String username = session.created.pollFirst();
+        if (username == null) {
+            return;
+        }
+        JsonNode page = send("find-created", authorized(session, "/v1/users?count=none&where=" + encode("username:eq:" + username)).GET());
+        JsonNode content = page == null ? null : page.path("content");
+        if (content != null && content.size() == 1) {
+            send("delete", authorized(session, "/v1/users/" + content.get(0).path("id").asLong()).DELETE());
+        }
+    }
+
+    private long randomUserId() {
+        // DataLoader's two users come first, seeded members follow
+        return 3 + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + session.accessToken);
+    }
+
+    private HttpRequest.Builder form(String path, String... pairs) {
+        StringJoiner body = new StringJoiner("&");
+        for (int i = 0; i < pairs.length; i += 2) {
+            body.add(pairs[i] + "=" + encode(pairs[i + 1]));
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()));
+    }
+
+    private JsonNode send(String name, HttpRequest.Builder request) {
+        Endpoint endpoint = endpoints.get(name);
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            if (recording.get()) {
+                endpoint.record(System.nanoTime() - started, success);
+            }
+            if (!success) {
+                return null;
+            }
+            String body = response.body();
+            return body.startsWith("{") ? objectMapper.readTree(body) : objectMapper.nullNode();
+        } catch (IOException e) {
+            if (recording.get()) {
+                endpoint.record(System.nanoTime() - started, false);
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void report(double elapsedSeconds) {
+        System.out.printf("%n%-13s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long total = 0;
+        for (Endpoint endpoint : endpoints.values()) {
+            long[] samples = endpoint.snapshot();
+            total += samples.length;
+            if (samples.length == 0) {
+                continue;
+            }
+            Arrays.sort(samples);
+            System.out.printf("%-13s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint.name, samples.length, endpoint.errors(),
+                    samples.length / elapsedSeconds, millis(samples, 0.50), millis(samples, 0.99), millis(samples, 0.999),
+                    samples[samples.length - 1] / 1e6);
+        }
+        System.out.printf("%-13s %9d %7s %9.1f%n", "total", total, "", total / elapsedSeconds);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void sleepQuietly() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Session {
+        private final Deque<String> created = new ArrayDeque<>();
+        private String accessToken;
+        private String refreshToken;
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private long[] samples = new long[1024];
+        private int size;
+        private long errors;
+
+        private Endpoint(String name) {
+            this.name = name;
+        }
+
+        private synchronized void record(long nanos, boolean success) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        private synchronized long[] snapshot() {
+            return Arrays.copyOf(samples, size);
+        }
+
+        private synchronized long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.spring.example.benchmark;
+
+import com.spring.example.entity.Role;
+import com.spring.example.entity.User;
+import com.spring.example.payload.response.UserResponse;
+import com.spring.example.repository.RoleRepository;
+import com.spring.example.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// run with -prof gc to compare gc.alloc.rate.norm, the bytes allocated per request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g"})
+public class ReadPathBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] RESPONSE_ATTRIBUTES = {"id", "name", "username", "email"};
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("read-path");
+        userRepository = context.getBean(UserRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        RoleRepository roleRepository = context.getBean(RoleRepository.class);
+        readWrite.executeWithoutResult(status -> {
+            Role role = roleRepository.findByName("USER").orElseThrow();
+            List<User> users = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                User user = new User();
+                user.setName("name" + i);
+                user.setUsername("bench" + i);
+                user.setEmail("bench" + i + "@example.com");
+                user.setPassword("{noop}password");
+                user.setRoles(Set.of(role));
+                users.add(user);
+            }
+            firstId = userRepository.saveAll(users).get(0).getId();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponse getByIdEntity() {
+        long id = randomId();
+        return readWrite.execute(status -> userRepository.findById(id)
+                .map(user -> new UserResponse(user.getId(), user.getName(), user.getUsername(), user.getEmail()))
+                .orElseThrow());
+    }
+
+    @Benchmark
+    public UserResponse getByIdProjection() {
+        long id = randomId();
+        return readOnly.execute(status -> userRepository.findResponseById(id).orElseThrow());
+    }
+
+    @Benchmark
+    public List<UserResponse> pageEntity() {
+        int page = ThreadLocalRandom.current().nextInt(USERS / PAGE_SIZE);
+        return readWrite.execute(status -> entityManager.createQuery("select u from User u order by u.id", User.class)
+                .setFirstResult(page * PAGE_SIZE)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultStream()
+                .map(user -> new UserResponse(user.getId(), user.getName(), user.getUsername(), user.getEmail()))
+                .toList());
+    }
+
+    @Benchmark
+    public List<UserResponse> pageProjection() {
+        int page = ThreadLocalRandom.current().nextInt(USERS / PAGE_SIZE);
+        return readOnly.execute(status -> userRepository.findAllProjected(User.class, Specification.where(null), Sort.by("id"),
+                (long) page * PAGE_SIZE, PAGE_SIZE + 1, UserResponse.class, RESPONSE_ATTRIBUTES));
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(USERS);
+    }
+}
@@ -0,0 +1,79 @@
+package com.spring.example.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class SortKeyPageBenchmark {
+
+    private static final int USERS = 500_000;
+    private static final int PAGE_SIZE = 10;
+
+    // order by clauses as planned by SortPlanner; the last two have no matching index and are rejected by it
+    @Param({"id", "name, id", "username", "email", "created_date, id", "username, id", "modified_date, id"})
+    private String orderBy;
+
+    private Connection connection;
+    private PreparedStatement firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:sort-key-page;DB_CLOSE_DELAY=-1;QUERY_CACHE_SIZE=0;OPTIMIZE_REUSE_RESULTS=FALSE");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists users (id bigint primary key, name varchar(255) not null, username varchar(255) not null unique, " +
+                    "email varchar(255) not null unique, created_date timestamp not null, modified_date timestamp)");
+            statement.execute("create index if not exists idx_users_name_id on users (name, id)");
+            statement.execute("create index if not exists idx_users_created_date_id on users (created_date, id)");
+            try (ResultSet count = statement.executeQuery("select count(*) from users")) {
+                count.next();
+                if (count.getLong(1) == 0) {
+                    populate();
+                }
+            }
+        }
+        firstPage = connection.prepareStatement("select id, name, username, email from users order by " + orderBy + " fetch first " + PAGE_SIZE + " rows only");
+    }
+
+    private void populate() throws SQLException {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        try (PreparedStatement insert = connection.prepareStatement("insert into users values (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= USERS; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "name" + random.nextInt(USERS / 10));
+                insert.setString(3, "user" + id);
+                insert.setString(4, "user" + id + "@example.com");
+                insert.setTimestamp(5, new Timestamp(now - random.nextInt(Integer.MAX_VALUE)));
+                insert.setTimestamp(6, new Timestamp(now - random.nextInt(Integer.MAX_VALUE)));
+                insert.addBatch();
+                if (id % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        firstPage.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void firstPage(Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = firstPage.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+}
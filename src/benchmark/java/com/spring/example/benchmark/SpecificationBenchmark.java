@@ -0,0 +1,65 @@
+package com.spring.example.benchmark;
+
+import com.spring.example.entity.User;
+import com.spring.example.util.FilterSpecification;
+import com.spring.example.util.GenericSpecification;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    private static final List<String> FIELDS = List.of("id", "name", "username", "email");
+    private static final List<String> WHERE = List.of("role:eq:USER", "created_date:gte:2024-01-01");
+
+    private final GenericSpecification<User> genericSpec = new GenericSpecification<>();
+    private final FilterSpecification<User> filterSpec = new FilterSpecification<User>()
+            .field("role", "roles.name", String.class)
+            .field("created_date", "createdDate", Date.class);
+
+    private ConfigurableApplicationContext context;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("specification");
+        criteriaBuilder = context.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Predicate keywordSearch() {
+        return toPredicate(genericSpec.getSpecification("somchai", FIELDS));
+    }
+
+    @Benchmark
+    public Predicate keywordSearchAndFilters() {
+        return toPredicate(genericSpec.getSpecification("somchai", FIELDS)
+                .and(filterSpec.getSpecification(FilterSpecification.parse(WHERE))));
+    }
+
+    private Predicate toPredicate(Specification<User> spec) {
+        CriteriaQuery<User> query = criteriaBuilder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+        return spec.toPredicate(root, query, criteriaBuilder);
+    }
+}
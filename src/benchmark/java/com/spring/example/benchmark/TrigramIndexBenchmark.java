@@ -0,0 +1,81 @@
+package com.spring.example.benchmark;
+
+import com.spring.example.util.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class TrigramIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"somchai", "suda", "anan", "malee", "niran", "ploy", "kittisak", "wanida", "john", "maria"};
+    private static final String[] LAST_NAMES = {"srisuk", "chaiyaporn", "thongdee", "wongsawat", "smith", "garcia", "kongkiat", "rattanakorn"};
+
+    @State(Scope.Benchmark)
+    public static class Users {
+        @Param({"1000000", "3000000"})
+        private int users;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Index {
+        @Param({"1000000", "3000000"})
+        private int users;
+
+        private TrigramIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            long before = usedMemory();
+            index = build(users);
+            long after = usedMemory();
+            System.out.printf("%n%d users, %d trigrams, %d bytes per indexed user%n", index.size(), index.trigramCount(), (after - before) / users);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public TrigramIndex rebuild(Users state) {
+        return build(state.users);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public long[] searchSelective(Index state) {
+        return state.index.search("user" + (state.users / 2) + "@");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public long[] searchCommonName(Index state) {
+        return state.index.search("kongkiat");
+    }
+
+    private static TrigramIndex build(int users) {
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 1; id <= users; id++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            index.put(id, Long.toString(id), name, "user" + id, "user" + id + "@example.com");
+        }
+        return index;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,118 @@
+package com.spring.example.config;
+
+import com.spring.example.entity.Role;
+import com.spring.example.repository.RoleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// fills the embedded perf database with synthetic users; runs after DataLoader so admin and user keep their ids
+@Component
+@Profile("perf")
+public class PerfDataSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+
+    // a few names are far more common than the rest, so keyword searches have realistic selectivity
+    private static final String[] FIRST_NAMES = {"somchai", "suda", "anan", "malee", "niran", "ploy", "kittisak", "wanida", "john", "maria",
+            "arthit", "chanida", "pichai", "ratana", "sakda", "thida", "wichai", "yupa", "david", "sarah"};
+    private static final String[] LAST_NAMES = {"srisuk", "chaiyaporn", "thongdee", "wongsawat", "smith", "garcia", "kongkiat", "rattanakorn",
+            "saelim", "boonmee", "jaidee", "somboon", "johnson", "lee", "nguyen", "phromma"};
+    private static final long CREATED_SPAN_MILLIS = TimeUnit.DAYS.toMillis(3 * 365);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleRepository roleRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final int users;
+    private final int batchSize;
+    private final String password;
+    private final String roles;
+
+    public PerfDataSeeder(JdbcTemplate jdbcTemplate,
+                          RoleRepository roleRepository,
+                          PasswordEncoder passwordEncoder,
+                          @Value("${app.perf.seed.users:1000000}") int users,
+                          @Value("${app.perf.seed.batch.size:5000}") int batchSize,
+                          @Value("${app.perf.seed.password:password}") String password,
+                          @Value("${app.perf.seed.roles:USER:1.0}") String roles) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.users = users;
+        this.batchSize = batchSize;
+        this.password = password;
+        this.roles = roles;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long seeded = jdbcTemplate.queryForObject("select count(*) from users where username like 'member%'", Long.class);
+        if (seeded != null && seeded > 0) {
+            return;
+        }
+        Map<Long, Double> roleShares = roleShares();
+        // hashing a million passwords would take hours, so every seeded user shares one hash
+        String passwordHash = passwordEncoder.encode(password);
+        long firstId = Optional.ofNullable(jdbcTemplate.queryForObject("select max(id) from users", Long.class)).orElse(0L) + 1;
+        long now = System.currentTimeMillis();
+        Random random = new Random(42);
+
+        long started = System.nanoTime();
+        List<Object[]> userRows = new ArrayList<>(batchSize);
+        List<Object[]> roleRows = new ArrayList<>(batchSize * 2);
+        for (int i = 0; i < users; i++) {
+            long id = firstId + i;
+            String name = pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random);
+            Timestamp createdDate = new Timestamp(now - (long) (random.nextDouble() * CREATED_SPAN_MILLIS));
+            userRows.add(new Object[]{id, name, "member" + i, "member" + i + "@example.com", passwordHash, createdDate});
+            roleShares.forEach((roleId, share) -> {
+                if (random.nextDouble() < share) {
+                    roleRows.add(new Object[]{id, roleId});
+                }
+            });
+            if (userRows.size() == batchSize || i == users - 1) {
+                insert(userRows, roleRows);
+                userRows.clear();
+                roleRows.clear();
+            }
+        }
+        jdbcTemplate.execute("alter sequence users_seq restart with " + (firstId + users));
+        log.info("Seeded {} users in {} ms", users, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private void insert(List<Object[]> userRows, List<Object[]> roleRows) {
+        jdbcTemplate.batchUpdate("insert into users (id, name, username, email, password, token_version, created_by, created_date, is_active) " +
+                "values (?, ?, ?, ?, ?, 0, 'perf', ?, true)", userRows);
+        jdbcTemplate.batchUpdate("insert into user_roles (user_id, role_id) values (?, ?)", roleRows);
+    }
+
+    // "USER:1.0,ADMIN:0.001" -> role id -> share of users holding it; missing roles are created
+    private Map<Long, Double> roleShares() {
+        Map<Long, Double> shares = new LinkedHashMap<>();
+        for (String entry : roles.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Role role = roleRepository.findByName(parts[0]).orElseGet(() -> {
+                Role created = new Role();
+                created.setName(parts[0]);
+                return roleRepository.save(created);
+            });
+            shares.put(role.getId(), Double.parseDouble(parts[1]));
+        }
+        return shares;
+    }
+
+    private static String pick(String[] names, Random random) {
+        double skewed = random.nextDouble();
+        return names[(int) (skewed * skewed * names.length)];
+    }
+}
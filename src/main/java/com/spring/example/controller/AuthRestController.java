@@ -56,6 +56,17 @@ public class AuthRestController {
         return ResponseEntity.ok("Sign out successfully.");
     }
 
+    @PostMapping(value = "/sign-out-everywhere", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+    public ResponseEntity<String> logoutEverywhere(@Valid @RequestParam("access_token") String accessToken) {
+        if (jwtTokenProvider.isTokenRevoked(accessToken)) {
+            return ResponseEntity.badRequest().body("Access token is already revoked.");
+        }
+
+        authService.signOutEverywhere(jwtTokenProvider.getUsername(accessToken));
+
+        return ResponseEntity.ok("Signed out of all sessions successfully.");
+    }
+
     @PostMapping(value = "/revoke-access-token", consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
     public ResponseEntity<String> revokeAccessToken(@Valid @RequestParam("access_token") String accessToken) {
         if (jwtTokenProvider.isTokenRevoked(accessToken)) {
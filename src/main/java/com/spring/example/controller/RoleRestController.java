@@ -1,14 +1,18 @@
 package com.spring.example.controller;
 
 import com.spring.example.payload.request.RoleRequest;
+import com.spring.example.payload.response.CursorPaginationResponse;
 import com.spring.example.payload.response.PaginationResponse;
 import com.spring.example.payload.response.RoleResponse;
 import com.spring.example.service.implement.RoleService;
+import com.spring.example.util.CountMode;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 import static com.spring.example.util.AppConstants.*;
 
 @RestController
@@ -45,8 +49,20 @@ public class RoleRestController {
                                      @RequestParam(value = "size", defaultValue = DEFAULT_SIZE, required = false) int size,
                                      @RequestParam(value = "filter", defaultValue = DEFAULT_FILTER, required = false) String filter,
                                      @RequestParam(value = "sort", defaultValue = DEFAULT_SORT, required = false) String sort,
-                                     @RequestParam(value = "search", required = false) String keyword) {
-        return roleService.getAll(page, size, filter, sort, keyword);
+                                     @RequestParam(value = "search", required = false) String keyword,
+                                     @RequestParam(value = "where", required = false) List<String> where,
+                                     @RequestParam(value = "count", defaultValue = DEFAULT_COUNT, required = false) String count) {
+        return roleService.getAll(page, size, filter, sort, keyword, where, CountMode.from(count));
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorPaginationResponse getAllByCursor(@RequestParam(value = "cursor") String cursor,
+                                                   @RequestParam(value = "size", defaultValue = DEFAULT_SIZE, required = false) int size,
+                                                   @RequestParam(value = "filter", defaultValue = DEFAULT_FILTER, required = false) String filter,
+                                                   @RequestParam(value = "sort", defaultValue = DEFAULT_SORT, required = false) String sort,
+                                                   @RequestParam(value = "search", required = false) String keyword,
+                                                   @RequestParam(value = "where", required = false) List<String> where) {
+        return roleService.getAllByCursor(cursor, size, filter, sort, keyword, where);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,32 @@
+package com.spring.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "revocation_events", indexes = @Index(name = "idx_revocation_events_expires_at", columnList = "expires_at"))
+public class RevocationEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revocation_events_seq")
+    @SequenceGenerator(name = "revocation_events_seq", sequenceName = "revocation_events_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "token_id", nullable = false)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    @Column(nullable = false)
+    private String origin;
+}
@@ -11,7 +11,10 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_name_id", columnList = "name, id"),
+        @Index(name = "idx_users_created_date_id", columnList = "created_date, id")
+})
 @Where(clause = "is_active = true")
 public class User extends BaseEntity {
     @Id
@@ -31,10 +34,14 @@ public class User extends BaseEntity {
     @Column(nullable = false)
     private String password;
 
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+
     @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id", referencedColumnName = "id"),
-            inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id")
+            inverseJoinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id"),
+            indexes = @Index(name = "idx_user_roles_role_id", columnList = "role_id")
     )
     private Set<Role> roles;
 }
@@ -7,6 +7,7 @@ import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
@@ -94,6 +95,15 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorExceptions, HttpStatus.CONFLICT); // 409
     }
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ExceptionResponse> handleServiceBusyException(ServiceBusyException e, WebRequest w) {
+        String url = ((ServletWebRequest) w).getRequest().getRequestURI();
+        ExceptionResponse errorExceptions = new ExceptionResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), url, new Date(), e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE) // 503
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(errorExceptions);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ExceptionResponse> handleException(Exception e, WebRequest w) {
         String url = ((ServletWebRequest) w).getRequest().getRequestURI();
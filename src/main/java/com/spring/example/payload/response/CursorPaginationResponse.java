@@ -0,0 +1,17 @@
+package com.spring.example.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPaginationResponse {
+    private List<?> content;
+    private int pageSize;
+    private String nextCursor;
+    private boolean last;
+}
@@ -13,7 +13,7 @@ public class PaginationResponse {
     private List<?> content;
     private int pageNo;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean last;
 }
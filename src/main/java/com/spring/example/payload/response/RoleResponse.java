@@ -1,9 +1,4 @@
 package com.spring.example.payload.response;
 
-import lombok.Data;
-
-@Data
-public class RoleResponse {
-    private Long id;
-    private String name;
+public record RoleResponse(Long id, String name) {
 }
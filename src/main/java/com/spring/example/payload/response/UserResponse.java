@@ -1,11 +1,4 @@
 package com.spring.example.payload.response;
 
-import lombok.Data;
-
-@Data
-public class UserResponse {
-    private Long id;
-    private String name;
-    private String username;
-    private String email;
+public record UserResponse(Long id, String name, String username, String email) {
 }
@@ -0,0 +1,13 @@
+package com.spring.example.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProjectionRepository {
+    <T, R> List<R> findAllProjected(Class<T> domainClass, Specification<T> spec, Sort sort, long offset, int limit, Class<R> projection, String... attributes);
+
+    <T> List<Tuple> findAllTuples(Class<T> domainClass, Specification<T> spec, Sort sort, long offset, int limit, String... attributes);
+}
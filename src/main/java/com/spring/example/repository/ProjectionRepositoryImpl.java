@@ -0,0 +1,62 @@
+package com.spring.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// custom fragments do not inherit SimpleJpaRepository's read-only default
+@Transactional(readOnly = true)
+public class ProjectionRepositoryImpl implements ProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    public ProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // selects only the given columns into the projection's constructor; nothing is managed or dirty-checked
+    @Override
+    public <T, R> List<R> findAllProjected(Class<T> domainClass, Specification<T> spec, Sort sort, long offset, int limit, Class<R> projection, String... attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = criteriaBuilder.createQuery(projection);
+        Root<T> root = query.from(domainClass);
+        query.select(criteriaBuilder.construct(projection, selections(root, attributes)));
+        return page(query, root, criteriaBuilder, spec, sort, offset, limit);
+    }
+
+    @Override
+    public <T> List<Tuple> findAllTuples(Class<T> domainClass, Specification<T> spec, Sort sort, long offset, int limit, String... attributes) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        query.multiselect(selections(root, attributes));
+        return page(query, root, criteriaBuilder, spec, sort, offset, limit);
+    }
+
+    private static Selection<?>[] selections(Root<?> root, String[] attributes) {
+        Selection<?>[] selections = new Selection<?>[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            selections[i] = root.get(attributes[i]).alias(attributes[i]);
+        }
+        return selections;
+    }
+
+    private <T, R> List<R> page(CriteriaQuery<R> query, Root<T> root, CriteriaBuilder criteriaBuilder, Specification<T> spec, Sort sort, long offset, int limit) {
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
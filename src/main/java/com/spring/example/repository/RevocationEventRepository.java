@@ -0,0 +1,21 @@
+package com.spring.example.repository;
+
+import com.spring.example.entity.RevocationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface RevocationEventRepository extends JpaRepository<RevocationEvent, Long> {
+    List<RevocationEvent> findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(Long id, long expiresAt, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RevocationEvent e where e.expiresAt <= :expiresAt")
+    int deleteExpired(long expiresAt);
+}
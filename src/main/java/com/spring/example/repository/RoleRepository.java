@@ -1,17 +1,24 @@
 package com.spring.example.repository;
 
 import com.spring.example.entity.Role;
+import com.spring.example.payload.response.RoleResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RoleRepository extends JpaRepository<Role, Long> {
+public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificationExecutor<Role>, ProjectionRepository {
     Optional<Role> findByName(String user);
 
+    @Query("select new com.spring.example.payload.response.RoleResponse(r.id, r.name) from Role r order by r.id")
+    List<RoleResponse> findAllResponses();
+
     Page<Role> findAll(Specification<Role> spec, Pageable pageable);
 }
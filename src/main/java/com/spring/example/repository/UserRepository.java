@@ -1,23 +1,76 @@
 package com.spring.example.repository;
 
 import com.spring.example.entity.User;
+import com.spring.example.payload.response.UserResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, ProjectionRepository {
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsernameOrEmail(String username, String email);
 
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByUsername(String username);
 
+    // declared query methods get no transaction by default; getById calls this without one of its own
+    @Transactional(readOnly = true)
+    @Query("select new com.spring.example.payload.response.UserResponse(u.id, u.name, u.username, u.email) from User u where u.id = :id")
+    Optional<UserResponse> findResponseById(Long id);
+
+    @Query("select new com.spring.example.payload.response.UserResponse(u.id, u.name, u.username, u.email) from User u where u.id in :ids")
+    List<UserResponse> findResponsesByIdIn(Collection<Long> ids);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
     Page<User> findAll(Specification<User> spec, Pageable pageable);
+
+    // native so @Where does not hide deleted users, whose bumped version is what keeps their tokens rejected
+    @Query(value = "select id as id, token_version as tokenVersion from users where token_version > :tokenVersion", nativeQuery = true)
+    List<TokenVersionView> findTokenVersionsGreaterThan(long tokenVersion);
+
+    @Query(value = "select id as id, token_version as tokenVersion from users where token_version > :tokenVersion and modified_date >= :modifiedDate", nativeQuery = true)
+    List<TokenVersionView> findTokenVersionsGreaterThanModifiedSince(long tokenVersion, Date modifiedDate);
+
+    @Query("select r.id as roleId, count(u) as users from User u join u.roles r group by r.id")
+    List<RoleCountView> countByRole();
+
+    List<SearchView> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    interface TokenVersionView {
+        Long getId();
+
+        long getTokenVersion();
+    }
+
+    interface RoleCountView {
+        Long getRoleId();
+
+        long getUsers();
+    }
+
+    interface SearchView {
+        Long getId();
+
+        String getName();
+
+        String getUsername();
+
+        String getEmail();
+    }
 }
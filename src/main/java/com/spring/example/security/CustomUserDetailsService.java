@@ -1,7 +1,15 @@
 package com.spring.example.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.spring.example.entity.User;
 import com.spring.example.repository.UserRepository;
+import com.spring.example.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,16 +17,34 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, MeterBinder {
 
     private final UserRepository userRepository;
+    // username and email -> principal; both keys point at the same entry, so either lookup is a hit
+    private final Cache<String, Principal> principals;
+    // concurrent misses for one key share a single query, and all of them see its failure; a miss after an eviction
+    // never joins a query that started before it
+    private final SingleFlight<Load, Principal> principalLoads = new SingleFlight<>();
+    // bumped by every eviction; a load that overlapped one returns its result without caching it
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile Timer loadTimer;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${app.principal.cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${app.principal.cache.ttl.milliseconds:60000}") long ttlMillis) {
         this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
     }
 
     @Override
@@ -27,16 +53,61 @@ public class CustomUserDetailsService implements UserDetailsService {
             throw new UsernameNotFoundException("Username or email cannot be null");
         }
 
+        Principal principal = principals.getIfPresent(usernameOrEmail);
+        if (principal == null) {
+            long evictionsBefore = evictions.get();
+            principal = principalLoads.load(new Load(usernameOrEmail, evictionsBefore), () -> load(usernameOrEmail, evictionsBefore));
+        }
+        // callers may erase credentials on what they get back, so hand out a copy
+        return org.springframework.security.core.userdetails.User.withUserDetails(principal.userDetails()).build();
+    }
+
+    public void evict(User user) {
+        evictions.incrementAndGet();
+        principals.invalidate(user.getUsername());
+        principals.invalidate(user.getEmail());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, principals, "principals");
+        loadTimer = Timer.builder("principals.load")
+                .description("Time to load a principal missing from the cache")
+                .register(registry);
+    }
+
+    private Principal load(String usernameOrEmail, long evictionsBefore) {
+        long start = System.nanoTime();
         User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail));
-        
+
         Set<GrantedAuthority> authorities = user
                 .getRoles()
                 .stream()
                 .map((role -> new SimpleGrantedAuthority(role.getName()))).collect(Collectors.toSet());
 
-        return new org.springframework.security.core.userdetails.User(user.getUsername(),
+        Principal principal = new Principal(user.getUsername(), user.getEmail(), new org.springframework.security.core.userdetails.User(user.getUsername(),
                 user.getPassword(),
-                authorities);
+                authorities));
+        if (evictions.get() == evictionsBefore) {
+            principals.put(principal.username(), principal);
+            principals.put(principal.email(), principal);
+            // an eviction between the check and the puts may have run before them, so undo the puts
+            if (evictions.get() != evictionsBefore) {
+                principals.invalidate(principal.username());
+                principals.invalidate(principal.email());
+            }
+        }
+        Timer timer = loadTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return principal;
+    }
+
+    private record Principal(String username, String email, UserDetails userDetails) {
+    }
+
+    private record Load(String usernameOrEmail, long evictions) {
     }
-}
\ No newline at end of file
+}
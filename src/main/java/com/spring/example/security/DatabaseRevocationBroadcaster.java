@@ -0,0 +1,90 @@
+package com.spring.example.security;
+
+import com.spring.example.entity.RevocationEvent;
+import com.spring.example.repository.RevocationEventRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+@ConditionalOnProperty(name = "app.revocation.broadcast.transport", havingValue = "database", matchIfMissing = true)
+public class DatabaseRevocationBroadcaster implements RevocationBroadcaster {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final List<RevocationListener> listeners = new CopyOnWriteArrayList<>();
+    private final RevocationEventRepository revocationEventRepository;
+    private final Timer propagationLag;
+    private final DistributionSummary batchSize;
+    private final int maxBatchSize;
+    private final long settleMillis;
+    private long highWaterMark;
+
+    public DatabaseRevocationBroadcaster(RevocationEventRepository revocationEventRepository,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.revocation.broadcast.batch.size:500}") int maxBatchSize,
+                                         @Value("${app.revocation.broadcast.settle.milliseconds:5000}") long settleMillis) {
+        this.revocationEventRepository = revocationEventRepository;
+        this.maxBatchSize = maxBatchSize;
+        this.settleMillis = settleMillis;
+        this.propagationLag = Timer.builder("jwt.revocations.propagation.lag")
+                .description("Time between a revocation on another node and its arrival here")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("jwt.revocations.propagation.batch.size")
+                .description("Revocation events read per poll")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publish(String tokenId, long expiresAt) {
+        revocationEventRepository.save(new RevocationEvent(null, tokenId, expiresAt, System.currentTimeMillis(), origin));
+    }
+
+    @Override
+    public void subscribe(RevocationListener listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.broadcast.poll.interval.milliseconds:1000}")
+    public synchronized void poll() {
+        long now = System.currentTimeMillis();
+        List<RevocationEvent> events = revocationEventRepository.findByIdGreaterThanAndExpiresAtGreaterThanOrderByIdAsc(
+                highWaterMark, now, PageRequest.ofSize(maxBatchSize));
+        batchSize.record(events.size());
+
+        // sequence values can commit out of order, so the mark only moves past events
+        // that are old enough for every lower id to have committed as well
+        boolean settled = true;
+        for (RevocationEvent event : events) {
+            if (!origin.equals(event.getOrigin()) && apply(event)) {
+                propagationLag.record(Duration.ofMillis(Math.max(0, now - event.getCreatedAt())));
+            }
+            settled = settled && event.getCreatedAt() <= now - settleMillis;
+            if (settled) {
+                highWaterMark = event.getId();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.bucket.milliseconds:60000}")
+    public void deleteExpired() {
+        revocationEventRepository.deleteExpired(System.currentTimeMillis());
+    }
+
+    private boolean apply(RevocationEvent event) {
+        boolean applied = false;
+        for (RevocationListener listener : listeners) {
+            applied |= listener.onRevocation(event.getTokenId(), event.getExpiresAt());
+        }
+        return applied;
+    }
+}
@@ -0,0 +1,29 @@
+package com.spring.example.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class ExecutorPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public ExecutorPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -1,11 +1,15 @@
 package com.spring.example.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +18,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -21,6 +26,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
 
+    @Value("${app.jwt.authentication.mode:claims}")
+    private String authenticationMode;
+
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
@@ -46,31 +54,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String accessToken = getAccessTokenFromRequest(request);
         String refreshToken = getRefreshTokenFromRequest(request);
-        if (StringUtils.hasText(accessToken) && jwtTokenProvider.validateToken(accessToken)) {
-            String username = jwtTokenProvider.getUsername(accessToken);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        if (StringUtils.hasText(accessToken)) {
+            Claims claims = jwtTokenProvider.parseClaims(accessToken);
+            if (jwtTokenProvider.isRevoked(accessToken, claims)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Access Token has been revoked");
+                return;
+            }
+
+            UsernamePasswordAuthenticationToken authenticationToken = "database".equalsIgnoreCase(authenticationMode)
+                    ? authenticateFromDatabase(claims.getSubject())
+                    : authenticateFromClaims(claims);
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
         }
 
-        if (accessToken != null && jwtTokenProvider.isTokenRevoked(accessToken)) {
-            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Access Token has been revoked");
-            return;
-        }
-
         if (refreshToken != null) {
-            if (jwtTokenProvider.isRefreshTokenRevoked(refreshToken)) {
+            Claims refreshClaims = jwtTokenProvider.parseClaims(refreshToken);
+            if (jwtTokenProvider.isRevoked(refreshToken, refreshClaims)) {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Refresh Token has been revoked");
                 return;
             }
-
-            if (!jwtTokenProvider.validateToken(refreshToken)) {
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid Refresh Token");
-                return;
-            }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(Claims claims) {
+        Collection<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(claims);
+        UserDetails userDetails = new User(claims.getSubject(), "", authorities);
+        return new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
 }
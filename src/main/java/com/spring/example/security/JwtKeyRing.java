@@ -0,0 +1,83 @@
+package com.spring.example.security;
+
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class JwtKeyRing {
+
+    private final String signingKeyId;
+    private final Key signingKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final Map<String, Key> keys;
+    private final JwtParser parser;
+
+    public JwtKeyRing(@Value("${app.jwt.key-id:primary}") String signingKeyId,
+                      @Value("${app.jwt.secret}") String signingSecret,
+                      @Value("${app.jwt.verification-secrets:}") String[] verificationSecrets) {
+        this.signingKeyId = signingKeyId;
+        this.signingKey = decode(signingSecret);
+        this.signatureAlgorithm = SignatureAlgorithm.forSigningKey(signingKey);
+
+        Map<String, Key> keys = new HashMap<>();
+        for (String entry : verificationSecrets) {
+            if (!StringUtils.hasText(entry)) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("JWT verification secret must be in the form <key-id>:<secret>");
+            }
+            keys.put(entry.substring(0, separator).trim(), decode(entry.substring(separator + 1).trim()));
+        }
+        keys.put(signingKeyId, signingKey);
+        this.keys = Map.copyOf(keys);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolve(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    public JwtParser parser() {
+        return parser;
+    }
+
+    public JwtBuilder builder() {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyId)
+                .signWith(signingKey, signatureAlgorithm);
+    }
+
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    private Key resolve(String keyId) {
+        if (keyId == null) {
+            return signingKey;
+        }
+        Key key = keys.get(keyId);
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key id: " + keyId);
+        }
+        return key;
+    }
+
+    private static Key decode(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+}
@@ -2,44 +2,34 @@ package com.spring.example.security;
 
 import com.spring.example.entity.Role;
 import com.spring.example.entity.User;
-import com.spring.example.exception.NotFoundException;
-import com.spring.example.repository.UserRepository;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
-    private final UserRepository userRepository;
-    private final Set<String> revokedTokens = new HashSet<>();
-    private final Set<String> revokedRefreshTokens = new HashSet<>();
+    private final JwtKeyRing jwtKeyRing;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
     @Value("${app.access.token.expiration.milliseconds}")
     private long expiresIn;
     @Value("${app.refresh.token.expiration.milliseconds}")
     private long refreshExpiresIn;
 
-    public JwtTokenProvider(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public JwtTokenProvider(JwtKeyRing jwtKeyRing, TokenRevocationStore tokenRevocationStore, TokenVersionRegistry tokenVersionRegistry) {
+        this.jwtKeyRing = jwtKeyRing;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
-
-    public String generateToken(UserDetails userDetails) {
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new NotFoundException("User", "username", userDetails.getUsername()));
-
+    public String generateToken(User user) {
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + expiresIn);
 
@@ -47,57 +37,49 @@ public class JwtTokenProvider {
                 .map(Role::getName)
                 .toList();
 
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
+        return jwtKeyRing.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(user.getUsername())
                 .claim("user_id", user.getId())
                 .claim("username", user.getUsername())
                 .claim("roles", roleNames)
                 .claim("email", user.getEmail())
+                .claim("token_version", user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(expireDate)
-                .signWith(key())
                 .compact();
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
+    public String generateRefreshToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("sub", userDetails.getUsername());
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("sub", user.getUsername());
+        claims.put("user_id", user.getId());
+        claims.put("token_version", user.getTokenVersion());
         claims.put("iat", new Date());
         claims.put("exp", new Date(System.currentTimeMillis() + refreshExpiresIn));
-        return Jwts.builder()
+        return jwtKeyRing.builder()
                 .setClaims(claims)
-                .signWith(key())
                 .compact();
     }
 
     public String getUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
+        Claims claims = jwtKeyRing.parser()
                 .parseClaimsJws(token)
                 .getBody();
         return claims.getSubject();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        if (isRefreshTokenRevoked(token)) {
-            throw new JwtException("JWT token is revoked");
-        }
-        return claims.getSubject();
+    public boolean validateToken(String token) {
+        parseClaims(token);
+        return true;
     }
 
-    public boolean validateToken(String token) {
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parse(token);
-            return true;
+            return jwtKeyRing.parser()
+                    .parseClaimsJws(token)
+                    .getBody();
         } catch (MalformedJwtException ex) {
             throw new MalformedJwtException("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -107,27 +89,69 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             throw new IllegalArgumentException("JWT claims string is empty");
         } catch (JwtException ex) {
-            if (ex instanceof SignatureException && isRefreshTokenRevoked(token)) {
-                throw new JwtException("JWT token is revoked");
-            } else {
-                throw new JwtException("JWT token is invalid");
-            }
+            throw new JwtException("JWT token is invalid");
+        }
+    }
+
+    public Collection<GrantedAuthority> getAuthorities(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return Collections.emptySet();
         }
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     public void revokeToken(String accessToken) {
-        revokedTokens.add(accessToken);
+        revoke(accessToken);
     }
 
     public boolean isTokenRevoked(String accessToken) {
-        return revokedTokens.contains(accessToken);
+        return isRevoked(accessToken);
     }
 
     public void revokeRefreshToken(String refreshToken) {
-        revokedRefreshTokens.add(refreshToken);
+        revoke(refreshToken);
     }
 
     public boolean isRefreshTokenRevoked(String refreshToken) {
-        return revokedRefreshTokens.contains(refreshToken);
+        return isRevoked(refreshToken);
+    }
+
+    public boolean isRevoked(String token, Claims claims) {
+        return !isCurrentVersion(claims) || tokenRevocationStore.isRevoked(getTokenId(token, claims));
+    }
+
+    public boolean isCurrentVersion(Claims claims) {
+        Long tokenVersion = claims.get("token_version", Long.class);
+        return tokenVersionRegistry.isCurrent(claims.get("user_id", Long.class), tokenVersion == null ? 0 : tokenVersion);
+    }
+
+    private void revoke(String token) {
+        Claims claims = readClaims(token);
+        if (claims != null) {
+            tokenRevocationStore.revoke(getTokenId(token, claims), claims.getExpiration().getTime());
+        }
+    }
+
+    private boolean isRevoked(String token) {
+        Claims claims = readClaims(token);
+        return claims != null && isRevoked(token, claims);
+    }
+
+    private Claims readClaims(String token) {
+        try {
+            return parseClaims(token);
+        } catch (ExpiredJwtException ex) {
+            return null;
+        }
+    }
+
+    private String getTokenId(String token, Claims claims) {
+        if (claims.getId() != null) {
+            return claims.getId();
+        }
+        return token.substring(token.lastIndexOf('.') + 1);
     }
 }
@@ -0,0 +1,33 @@
+package com.spring.example.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+public class PasswordEncoderCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderCalibrator.class);
+    private static final int PROBE_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+    private static final int SAMPLES = 3;
+
+    public static int calibrateBCryptStrength(long targetMillis, int minStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("calibration");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        // every strength step doubles the number of rounds
+        double probeMillis = best / 1_000_000.0;
+        int strength = PROBE_STRENGTH + (int) Math.round(Math.log(targetMillis / probeMillis) / Math.log(2));
+        strength = Math.max(minStrength, Math.min(MAX_STRENGTH, strength));
+
+        log.info("BCrypt strength {} took {} ms, using strength {} for a {} ms target", PROBE_STRENGTH, String.format("%.1f", probeMillis), strength, targetMillis);
+        return strength;
+    }
+}
@@ -0,0 +1,89 @@
+package com.spring.example.security;
+
+import com.spring.example.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private volatile Timer waitTimer;
+
+    public PasswordHashingExecutor(@Value("${app.password.hashing.threads:0}") int threads,
+                                   @Value("${app.password.hashing.queue.capacity:64}") int queueCapacity,
+                                   @Value("${app.password.hashing.retry-after.seconds:1}") long retryAfterSeconds) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                Timer timer = waitTimer;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+                return task.get();
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many concurrent password checks, please retry later.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceBusyException("Password check was interrupted, please retry later.", retryAfterSeconds);
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.queue.depth", this, PasswordHashingExecutor::getQueueDepth)
+                .description("Password hashing tasks waiting for a thread")
+                .register(registry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(registry);
+        waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time password hashing tasks spend queued before running")
+                .register(registry);
+    }
+}
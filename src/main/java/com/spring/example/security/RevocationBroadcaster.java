@@ -0,0 +1,12 @@
+package com.spring.example.security;
+
+public interface RevocationBroadcaster {
+    void publish(String tokenId, long expiresAt);
+
+    void subscribe(RevocationListener listener);
+
+    @FunctionalInterface
+    interface RevocationListener {
+        boolean onRevocation(String tokenId, long expiresAt);
+    }
+}
@@ -0,0 +1,223 @@
+package com.spring.example.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+
+@Component
+public class RevocationLog {
+
+    private static final int MAGIC = 0x52564B31;
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "revocations-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = ".lock";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<Segment> segments = new ArrayList<>();
+    // held for the lifetime of the log, so a second instance on the same directory fails at startup instead of
+    // colliding on segment names and deleting segments this one still has mapped
+    private FileChannel lockChannel;
+    private Segment active;
+    private long nextSequence;
+    private boolean dirty;
+
+    public RevocationLog(@Value("${app.revocation.log.enabled:true}") boolean enabled,
+                         @Value("${app.revocation.log.directory:data/revocations}") String directory,
+                         @Value("${app.revocation.log.segment.bytes:1048576}") int segmentBytes) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+    }
+
+    public synchronized void replay(ObjLongConsumer<String> consumer) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            lockDirectory();
+            List<Path> paths;
+            try (Stream<Path> files = Files.list(directory)) {
+                paths = files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                        .sorted()
+                        .toList();
+            }
+
+            long now = System.currentTimeMillis();
+            for (Path path : paths) {
+                Segment segment = new Segment(path, null);
+                segments.add(segment);
+                nextSequence = Math.max(nextSequence, sequenceOf(path) + 1);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                        continue;
+                    }
+                    int position = HEADER_BYTES;
+                    while (position + Short.BYTES <= buffer.limit()) {
+                        int length = buffer.getShort(position);
+                        int recordBytes = Short.BYTES + length + Long.BYTES;
+                        if (length <= 0 || position + recordBytes > buffer.limit()) {
+                            break;
+                        }
+                        byte[] tokenId = new byte[length];
+                        buffer.get(position + Short.BYTES, tokenId);
+                        long expiresAt = buffer.getLong(position + Short.BYTES + length);
+                        segment.maxExpiresAt = Math.max(segment.maxExpiresAt, expiresAt);
+                        if (expiresAt > now) {
+                            consumer.accept(new String(tokenId, StandardCharsets.UTF_8), expiresAt);
+                        }
+                        position += recordBytes;
+                    }
+                }
+            }
+            compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to replay revocation log in " + directory, e);
+        }
+    }
+
+    public synchronized void append(String tokenId, long expiresAt) {
+        if (!enabled) {
+            return;
+        }
+        byte[] bytes = tokenId.getBytes(StandardCharsets.UTF_8);
+        int recordBytes = Short.BYTES + bytes.length + Long.BYTES;
+        if (bytes.length > Short.MAX_VALUE || HEADER_BYTES + recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Token id is too long to be logged in segments of " + segmentBytes + " bytes");
+        }
+        if (active == null || active.position + recordBytes > segmentBytes) {
+            roll();
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.position;
+        // the length is written last so a torn record is never replayed
+        buffer.put(position + Short.BYTES, bytes);
+        buffer.putLong(position + Short.BYTES + bytes.length, expiresAt);
+        buffer.putShort(position, (short) bytes.length);
+        active.position += recordBytes;
+        active.maxExpiresAt = Math.max(active.maxExpiresAt, expiresAt);
+        dirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.log.flush.interval.milliseconds:1000}")
+    public synchronized void flush() {
+        if (dirty) {
+            active.buffer.force();
+            dirty = false;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.bucket.milliseconds:60000}")
+    public synchronized void compact() {
+        long now = System.currentTimeMillis();
+        Iterator<Segment> iterator = segments.iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment != active && segment.maxExpiresAt <= now) {
+                try {
+                    Files.deleteIfExists(segment.path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to delete revocation log segment " + segment.path, e);
+                }
+                iterator.remove();
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        flush();
+        if (lockChannel != null) {
+            try {
+                lockChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to release revocation log lock in " + directory, e);
+            }
+            lockChannel = null;
+        }
+    }
+
+    private void lockDirectory() throws IOException {
+        if (lockChannel != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Revocation log directory " + directory.toAbsolutePath()
+                    + " is in use by another instance; give each instance its own app.revocation.log.directory");
+        }
+        lockChannel = channel;
+    }
+
+    private void roll() {
+        flush();
+        try {
+            lockDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to lock revocation log directory " + directory, e);
+        }
+        if (active != null) {
+            active.buffer = null;
+        }
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence++, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.putInt(0, MAGIC);
+            active = new Segment(path, buffer);
+            segments.add(active);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create revocation log segment " + path, e);
+        }
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private MappedByteBuffer buffer;
+        private int position = HEADER_BYTES;
+        private long maxExpiresAt;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -10,7 +10,9 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -20,6 +22,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableMethodSecurity
@@ -38,8 +41,18 @@ public class SecurityConfig {
     }
 
     @Bean
-    public static PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public static PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                                                  @Value("${app.password.encoder:bcrypt}") String encodingId,
+                                                  @Value("${app.password.hashing.target.milliseconds:50}") long targetMillis,
+                                                  @Value("${app.password.bcrypt.min-strength:10}") int minStrength) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(PasswordEncoderCalibrator.calibrateBCryptStrength(targetMillis, minStrength));
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(encodingId, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new ExecutorPasswordEncoder(passwordEncoder, passwordHashingExecutor);
     }
 
     @Bean
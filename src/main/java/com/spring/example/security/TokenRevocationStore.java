@@ -0,0 +1,161 @@
+package com.spring.example.security;
+
+import com.spring.example.util.BlockedBloomFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class TokenRevocationStore implements MeterBinder {
+
+    // token id -> expiry of the token in epoch milliseconds
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // expiry bucket -> token ids expiring inside that bucket
+    private final ConcurrentNavigableMap<Long, Set<String>> expiryBuckets = new ConcurrentSkipListMap<>();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder filterFalsePositives = new LongAdder();
+    private final RevocationLog revocationLog;
+    private final RevocationBroadcaster revocationBroadcaster;
+    private final long bucketMillis;
+    private final long filterExpectedInsertions;
+    private final int filterBitsPerEntry;
+    // answers the common "not revoked" case before the map is consulted
+    private volatile BlockedBloomFilter filter;
+    private volatile BlockedBloomFilter pendingFilter;
+
+    public TokenRevocationStore(RevocationLog revocationLog,
+                                ObjectProvider<RevocationBroadcaster> revocationBroadcaster,
+                                @Value("${app.revocation.bucket.milliseconds:60000}") long bucketMillis,
+                                @Value("${app.revocation.filter.expected-insertions:1000000}") long filterExpectedInsertions,
+                                @Value("${app.revocation.filter.bits-per-entry:10}") int filterBitsPerEntry) {
+        this.revocationLog = revocationLog;
+        this.revocationBroadcaster = revocationBroadcaster.getIfAvailable();
+        this.bucketMillis = bucketMillis;
+        this.filterExpectedInsertions = filterExpectedInsertions;
+        this.filterBitsPerEntry = filterBitsPerEntry;
+        this.filter = new BlockedBloomFilter(filterExpectedInsertions, filterBitsPerEntry);
+    }
+
+    @PostConstruct
+    public void restore() {
+        revocationLog.replay(this::add);
+        if (revocationBroadcaster != null) {
+            revocationBroadcaster.subscribe(this::add);
+        }
+    }
+
+    public boolean revoke(String tokenId, long expiresAt) {
+        if (!add(tokenId, expiresAt)) {
+            return false;
+        }
+        revocationLog.append(tokenId, expiresAt);
+        if (revocationBroadcaster != null) {
+            revocationBroadcaster.publish(tokenId, expiresAt);
+        }
+        return true;
+    }
+
+    private boolean add(String tokenId, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return false;
+        }
+        if (revokedTokens.putIfAbsent(tokenId, expiresAt) != null) {
+            return false;
+        }
+        // read the pending filter first: if a rebuild finishes in between, the swapped-in filter is seen below
+        BlockedBloomFilter pending = pendingFilter;
+        filter.put(tokenId);
+        if (pending != null) {
+            pending.put(tokenId);
+        }
+        expiryBuckets.computeIfAbsent(expiresAt / bucketMillis, bucket -> ConcurrentHashMap.newKeySet()).add(tokenId);
+        return true;
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revokedTokens.get(tokenId);
+        if (expiresAt == null) {
+            filterFalsePositives.increment();
+            return false;
+        }
+        return expiresAt > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.bucket.milliseconds:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        ConcurrentNavigableMap<Long, Set<String>> expired = expiryBuckets.headMap(now / bucketMillis);
+        for (Map.Entry<Long, Set<String>> bucket : expired.entrySet()) {
+            for (String tokenId : bucket.getValue()) {
+                if (revokedTokens.remove(tokenId) != null) {
+                    evictions.increment();
+                }
+            }
+            expiryBuckets.remove(bucket.getKey());
+        }
+
+        // expired tokens cannot be removed from the filter, so it is rebuilt from the live entries once full
+        if (filter.insertions() > filter.capacity()) {
+            rebuildFilter(Math.max(filterExpectedInsertions, 2L * revokedTokens.size()));
+        }
+    }
+
+    private synchronized void rebuildFilter(long expectedInsertions) {
+        BlockedBloomFilter rebuilt = new BlockedBloomFilter(expectedInsertions, filterBitsPerEntry);
+        pendingFilter = rebuilt;
+        for (String tokenId : revokedTokens.keySet()) {
+            rebuilt.put(tokenId);
+        }
+        filter = rebuilt;
+        pendingFilter = null;
+    }
+
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long filterFalsePositiveCount() {
+        return filterFalsePositives.sum();
+    }
+
+    public long filterSizeInBytes() {
+        return filter.sizeInBytes();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.revocations.size", this, TokenRevocationStore::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(registry);
+        FunctionCounter.builder("jwt.revocations.evictions", this, TokenRevocationStore::evictionCount)
+                .description("Revoked tokens dropped after their expiry")
+                .register(registry);
+        FunctionCounter.builder("jwt.revocations.filter.false.positives", this, TokenRevocationStore::filterFalsePositiveCount)
+                .description("Lookups the Bloom filter passed through that were not revoked")
+                .register(registry);
+        Gauge.builder("jwt.revocations.filter.size", this, TokenRevocationStore::filterSizeInBytes)
+                .description("Off-heap memory held by the revocation Bloom filter")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
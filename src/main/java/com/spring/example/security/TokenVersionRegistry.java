@@ -0,0 +1,61 @@
+package com.spring.example.security;
+
+import com.spring.example.repository.UserRepository;
+import com.spring.example.repository.UserRepository.TokenVersionView;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class TokenVersionRegistry {
+
+    // only users whose version was ever bumped are held; everyone else is on version 0
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final UserRepository userRepository;
+    private final long refreshIntervalMillis;
+    private long lastRefresh;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${app.token.version.refresh.interval.milliseconds:10000}") long refreshIntervalMillis) {
+        this.userRepository = userRepository;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @PostConstruct
+    public void load() {
+        lastRefresh = System.currentTimeMillis();
+        merge(userRepository.findTokenVersionsGreaterThan(0));
+    }
+
+    @Scheduled(fixedDelayString = "${app.token.version.refresh.interval.milliseconds:10000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        // overlap the previous window so slow commits and clock drift are not missed
+        Date since = new Date(lastRefresh - refreshIntervalMillis);
+        merge(userRepository.findTokenVersionsGreaterThanModifiedSince(0, since));
+        lastRefresh = now;
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        if (userId == null) {
+            return tokenVersion == 0;
+        }
+        return tokenVersion >= versions.getOrDefault(userId, 0L);
+    }
+
+    public void update(Long userId, long tokenVersion) {
+        versions.merge(userId, tokenVersion, Math::max);
+    }
+
+    private void merge(List<TokenVersionView> views) {
+        for (TokenVersionView view : views) {
+            update(view.getId(), view.getTokenVersion());
+        }
+    }
+}
@@ -12,4 +12,6 @@ public interface IAuthService {
     void addRole(String usernameOrEmail, String roleName);
 
     void removeRole(String usernameOrEmail, String roleName);
+
+    void signOutEverywhere(String usernameOrEmail);
 }
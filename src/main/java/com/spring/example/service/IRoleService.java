@@ -1,8 +1,12 @@
 package com.spring.example.service;
 
 import com.spring.example.payload.request.RoleRequest;
+import com.spring.example.payload.response.CursorPaginationResponse;
 import com.spring.example.payload.response.PaginationResponse;
 import com.spring.example.payload.response.RoleResponse;
+import com.spring.example.util.CountMode;
+
+import java.util.List;
 
 public interface IRoleService {
     void create(RoleRequest roleRequest);
@@ -11,7 +15,9 @@ public interface IRoleService {
 
     void delete(Long id);
 
-    PaginationResponse getAll(int page, int size, String filter, String sort, String keyword);
+    PaginationResponse getAll(int page, int size, String filter, String sort, String keyword, List<String> where, CountMode countMode);
+
+    CursorPaginationResponse getAllByCursor(String cursor, int size, String filter, String sort, String keyword, List<String> where);
 
     RoleResponse getById(Long id);
 }
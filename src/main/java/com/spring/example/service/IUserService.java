@@ -2,8 +2,12 @@ package com.spring.example.service;
 
 import com.spring.example.payload.request.SignUpRequest;
 import com.spring.example.payload.request.UserRequest;
+import com.spring.example.payload.response.CursorPaginationResponse;
 import com.spring.example.payload.response.PaginationResponse;
 import com.spring.example.payload.response.UserResponse;
+import com.spring.example.util.CountMode;
+
+import java.util.List;
 
 public interface IUserService {
     void create(SignUpRequest signUpRequest);
@@ -12,7 +16,9 @@ public interface IUserService {
 
     void delete(Long id);
 
-    PaginationResponse getAll(int page, int size, String filter, String sort, String keyword);
+    PaginationResponse getAll(int page, int size, String filter, String sort, String keyword, List<String> where, CountMode countMode);
+
+    CursorPaginationResponse getAllByCursor(String cursor, int size, String filter, String sort, String keyword, List<String> where);
 
     UserResponse getById(Long id);
 }
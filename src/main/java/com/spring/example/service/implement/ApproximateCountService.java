@@ -0,0 +1,72 @@
+package com.spring.example.service.implement;
+
+import com.spring.example.repository.UserRepository;
+import com.spring.example.repository.UserRepository.RoleCountView;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class ApproximateCountService {
+
+    private final UserRepository userRepository;
+    private final AtomicLong users = new AtomicLong();
+    // role id -> active users holding that role
+    private final Map<Long, AtomicLong> usersByRole = new ConcurrentHashMap<>();
+
+    public ApproximateCountService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // writes racing with a reconcile may be counted twice or not at all until the next one
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.count.reconcile.interval.milliseconds:300000}", initialDelayString = "${app.count.reconcile.interval.milliseconds:300000}")
+    public void reconcile() {
+        users.set(userRepository.count());
+        Map<Long, Long> counted = new ConcurrentHashMap<>();
+        for (RoleCountView view : userRepository.countByRole()) {
+            counted.put(view.getRoleId(), view.getUsers());
+        }
+        usersByRole.keySet().retainAll(counted.keySet());
+        counted.forEach((roleId, count) -> usersByRole.computeIfAbsent(roleId, id -> new AtomicLong()).set(count));
+    }
+
+    public long countUsers() {
+        return users.get();
+    }
+
+    public long countUsersByRole(Long roleId) {
+        AtomicLong count = usersByRole.get(roleId);
+        return count == null ? 0 : count.get();
+    }
+
+    public void userCreated(Long roleId) {
+        users.incrementAndGet();
+        roleGranted(roleId);
+    }
+
+    public void userDeleted(Iterable<Long> roleIds) {
+        users.decrementAndGet();
+        roleIds.forEach(this::roleRevoked);
+    }
+
+    public void roleDeleted(Long roleId) {
+        usersByRole.remove(roleId);
+    }
+
+    public void roleGranted(Long roleId) {
+        usersByRole.computeIfAbsent(roleId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public void roleRevoked(Long roleId) {
+        AtomicLong count = usersByRole.get(roleId);
+        if (count != null) {
+            count.updateAndGet(value -> Math.max(0, value - 1));
+        }
+    }
+}
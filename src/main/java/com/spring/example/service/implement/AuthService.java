@@ -1,31 +1,41 @@
 package com.spring.example.service.implement;
 
+import com.spring.example.entity.User;
 import com.spring.example.exception.NotFoundException;
 import com.spring.example.payload.response.JwtResponse;
 import com.spring.example.repository.RoleRepository;
 import com.spring.example.repository.UserRepository;
+import com.spring.example.security.CustomUserDetailsService;
 import com.spring.example.security.JwtTokenProvider;
+import com.spring.example.security.TokenVersionRegistry;
 import com.spring.example.service.IAuthService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Service
 public class AuthService implements IAuthService {
 
-    private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
     private final JwtTokenProvider jwtTokenProvider;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final RoleCatalogue roleCatalogue;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final ApproximateCountService approximateCountService;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final QueryResultCache queryResultCache;
+    private volatile String userNotFoundEncodedPassword;
 
     @Value("${app.access.token.expiration.milliseconds}")
     private long expiresIn;
@@ -33,43 +43,50 @@ public class AuthService implements IAuthService {
     @Value("${app.refresh.token.expiration.milliseconds}")
     private long refreshExpiresIn;
 
-    public AuthService(AuthenticationManager authenticationManager, UserDetailsService userDetailsService, JwtTokenProvider jwtTokenProvider, UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRepository roleRepository, PasswordEncoder passwordEncoder1) {
-        this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
+    public AuthService(JwtTokenProvider jwtTokenProvider, UserRepository userRepository, RoleRepository roleRepository, RoleCatalogue roleCatalogue, PasswordEncoder passwordEncoder, TokenVersionRegistry tokenVersionRegistry, ApproximateCountService approximateCountService,
+                       CustomUserDetailsService customUserDetailsService, QueryResultCache queryResultCache) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
-        this.passwordEncoder = passwordEncoder1;
+        this.roleCatalogue = roleCatalogue;
+        this.passwordEncoder = passwordEncoder;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.approximateCountService = approximateCountService;
+        this.customUserDetailsService = customUserDetailsService;
+        this.queryResultCache = queryResultCache;
     }
 
     @Override
     public JwtResponse signIn(String usernameOrEmail, String password) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(usernameOrEmail, password));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(usernameOrEmail);
-            String token = jwtTokenProvider.generateToken(userDetails);
-            String refreshToken = jwtTokenProvider.generateRefreshToken(userDetails);
-            return createAccessToken(token, refreshToken);
-        } catch (AuthenticationException e) {
-            throw new RuntimeException("Invalid username or password", e);
+        User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).orElse(null);
+        if (user == null) {
+            // hash anyway so unknown usernames take as long as wrong passwords
+            passwordEncoder.matches(password, getUserNotFoundEncodedPassword());
+            throw new RuntimeException("Invalid username or password", new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail));
+        }
+        if (!passwordEncoder.matches(password, user.getPassword())) {
+            throw new RuntimeException("Invalid username or password", new BadCredentialsException("Bad credentials"));
         }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(password));
+            userRepository.save(user);
+            customUserDetailsService.evict(user);
+        }
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user.getUsername(), null, getAuthorities(user)));
+        return createAccessToken(user);
     }
 
     @Override
     public JwtResponse refreshAccessToken(String refreshToken) {
-        if (jwtTokenProvider.isRefreshTokenRevoked(refreshToken)) {
+        Claims claims = jwtTokenProvider.parseClaims(refreshToken);
+        if (jwtTokenProvider.isRevoked(refreshToken, claims)) {
             throw new IllegalArgumentException("Refresh token is revoked");
         }
-        try {
-            String username = jwtTokenProvider.getUsernameFromToken(refreshToken);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            String newAccessToken = jwtTokenProvider.generateToken(userDetails);
-            String newRefreshToken = jwtTokenProvider.generateRefreshToken(userDetails);
-            return createAccessToken(newAccessToken, newRefreshToken);
-        } catch (AuthenticationException e) {
-            throw new RuntimeException("Invalid refresh token", e);
-        }
+
+        User user = userRepository.findByUsername(claims.getSubject())
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token", new UsernameNotFoundException("User not found with username or email: " + claims.getSubject())));
+        return createAccessToken(user);
     }
 
     @Override
@@ -78,7 +95,7 @@ public class AuthService implements IAuthService {
                 .ifPresent(user -> {
                     if (passwordEncoder.matches(oldPassword, user.getPassword())) {
                         user.setPassword(passwordEncoder.encode(password));
-                        userRepository.save(user);
+                        saveWithNewTokenVersion(user);
                     } else {
                         throw new IllegalArgumentException("Old password is incorrect");
                     }
@@ -88,28 +105,68 @@ public class AuthService implements IAuthService {
     @Override
     public void addRole(String usernameOrEmail, String roleName) {
         userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).ifPresent(user -> {
-            user.getRoles().add(roleRepository.findByName(roleName)
-                    .orElseThrow(() -> new NotFoundException("Role", "name", roleName)));
+            Long roleId = roleCatalogue.findByName(roleName)
+                    .orElseThrow(() -> new NotFoundException("Role", "name", roleName))
+                    .id();
+            boolean granted = user.getRoles().stream().noneMatch(userRole -> userRole.getId().equals(roleId));
+            if (granted) {
+                user.getRoles().add(roleRepository.getReferenceById(roleId));
+            }
 
-            userRepository.save(user);
+            saveWithNewTokenVersion(user);
+            if (granted) {
+                approximateCountService.roleGranted(roleId);
+                queryResultCache.modifiedAfterCommit(QueryResultCache.USERS);
+            }
         });
     }
 
     @Override
     public void removeRole(String usernameOrEmail, String roleName) {
         userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).ifPresent(user -> {
-            user.getRoles().remove(roleRepository.findByName(roleName)
-                    .orElseThrow(() -> new NotFoundException("Role", "name", roleName)));
+            Long roleId = roleCatalogue.findByName(roleName)
+                    .orElseThrow(() -> new NotFoundException("Role", "name", roleName))
+                    .id();
+            boolean revoked = user.getRoles().removeIf(userRole -> userRole.getId().equals(roleId));
 
-            userRepository.save(user);
+            saveWithNewTokenVersion(user);
+            if (revoked) {
+                approximateCountService.roleRevoked(roleId);
+                queryResultCache.modifiedAfterCommit(QueryResultCache.USERS);
+            }
         });
     }
 
-    private JwtResponse createAccessToken(String accessToken, String refreshToken) {
+    @Override
+    public void signOutEverywhere(String usernameOrEmail) {
+        userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).ifPresent(this::saveWithNewTokenVersion);
+    }
+
+    private void saveWithNewTokenVersion(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        tokenVersionRegistry.update(user.getId(), user.getTokenVersion());
+        customUserDetailsService.evict(user);
+    }
+
+    private String getUserNotFoundEncodedPassword() {
+        if (userNotFoundEncodedPassword == null) {
+            userNotFoundEncodedPassword = passwordEncoder.encode("userNotFoundPassword");
+        }
+        return userNotFoundEncodedPassword;
+    }
+
+    private Set<GrantedAuthority> getAuthorities(User user) {
+        return user.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(role.getName()))
+                .collect(Collectors.toSet());
+    }
+
+    private JwtResponse createAccessToken(User user) {
         JwtResponse jwtResponse = new JwtResponse();
-        jwtResponse.setAccessToken(accessToken);
+        jwtResponse.setAccessToken(jwtTokenProvider.generateToken(user));
         jwtResponse.setExpiresIn(expiresIn / 1000);
-        jwtResponse.setRefreshToken(refreshToken);
+        jwtResponse.setRefreshToken(jwtTokenProvider.generateRefreshToken(user));
         jwtResponse.setRefreshExpiresIn(refreshExpiresIn / 1000);
         return jwtResponse;
     }
@@ -0,0 +1,73 @@
+package com.spring.example.service.implement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.example.payload.response.PaginationResponse;
+import com.spring.example.util.AfterCommit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Service
+public class QueryResultCache implements MeterBinder {
+
+    public static final String USERS = "users";
+    public static final String ROLES = "roles";
+
+    // weighed by rows, so a few large pages cannot crowd out many small ones unnoticed
+    private final Cache<Key, PaginationResponse> pages;
+    // entity -> modification counter; it is part of every key, so bumping it orphans all pages read before, which then age out
+    private final Map<String, AtomicLong> modifications = new ConcurrentHashMap<>();
+
+    public QueryResultCache(@Value("${app.query.cache.maximum-rows:100000}") long maximumRows,
+                            @Value("${app.query.cache.ttl.milliseconds:30000}") long ttlMillis) {
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maximumRows)
+                .weigher((Key key, PaginationResponse page) -> page.getContent().size() + 1)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+    }
+
+    // entities are the ones whose rows can change the page; query holds every request parameter that shapes it
+    public PaginationResponse get(List<String> entities, List<?> query, Supplier<PaginationResponse> loader) {
+        long[] versions = new long[entities.size()];
+        for (int i = 0; i < versions.length; i++) {
+            versions[i] = modifications(entities.get(i)).get();
+        }
+        Key key = new Key(query, Arrays.stream(versions).boxed().toList());
+        PaginationResponse page = pages.getIfPresent(key);
+        if (page == null) {
+            page = loader.get();
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    // bumped once the write is visible, so a page read before the commit is never stored under the new version
+    public void modifiedAfterCommit(String entity) {
+        AfterCommit.run(() -> modifications(entity).incrementAndGet());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages, "query.pages");
+    }
+
+    private AtomicLong modifications(String entity) {
+        return modifications.computeIfAbsent(entity, key -> new AtomicLong());
+    }
+
+    private record Key(List<?> query, List<Long> versions) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.spring.example.service.implement;
+
+import com.spring.example.payload.response.RoleResponse;
+import com.spring.example.repository.RoleRepository;
+import com.spring.example.util.AfterCommit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class RoleCatalogue {
+
+    private final RoleRepository roleRepository;
+    // replaced as a whole on every refresh, so readers always see one consistent version without locking
+    private volatile Snapshot snapshot = new Snapshot(0, List.of(), Map.of(), Map.of());
+
+    public RoleCatalogue(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    // also picks up roles written by other instances
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.role.catalogue.refresh.interval.milliseconds:60000}", initialDelayString = "${app.role.catalogue.refresh.interval.milliseconds:60000}")
+    public synchronized void refresh() {
+        List<RoleResponse> roles = roleRepository.findAllResponses();
+        snapshot = new Snapshot(snapshot.version() + 1,
+                roles,
+                roles.stream().collect(Collectors.toUnmodifiableMap(RoleResponse::id, Function.identity())),
+                roles.stream().collect(Collectors.toUnmodifiableMap(RoleResponse::name, Function.identity())));
+    }
+
+    // a write inside a transaction is only visible to the reload once that transaction commits
+    public void refreshAfterCommit() {
+        AfterCommit.run(this::refresh);
+    }
+
+    public Optional<RoleResponse> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    public Optional<RoleResponse> findByName(String name) {
+        return Optional.ofNullable(snapshot.byName().get(name));
+    }
+
+    public List<RoleResponse> findAll() {
+        return snapshot.roles();
+    }
+
+    public long version() {
+        return snapshot.version();
+    }
+
+    private record Snapshot(long version, List<RoleResponse> roles, Map<Long, RoleResponse> byId, Map<String, RoleResponse> byName) {
+    }
+}
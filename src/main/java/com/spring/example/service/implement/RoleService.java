@@ -3,35 +3,51 @@ package com.spring.example.service.implement;
 import com.spring.example.entity.Role;
 import com.spring.example.exception.NotFoundException;
 import com.spring.example.payload.request.RoleRequest;
+import com.spring.example.payload.response.CursorPaginationResponse;
 import com.spring.example.payload.response.PaginationResponse;
 import com.spring.example.payload.response.RoleResponse;
 import com.spring.example.repository.RoleRepository;
 import com.spring.example.service.IRoleService;
+import com.spring.example.util.CountMode;
 import com.spring.example.util.EntityMapper;
-import com.spring.example.util.GenericSpecification;
-import org.springframework.data.domain.Page;
+import com.spring.example.util.FilterSpecification;
+import com.spring.example.util.FilterSpecification.Condition;
+import com.spring.example.util.KeysetCursor;
+import com.spring.example.util.SortPlanner;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class RoleService implements IRoleService {
 
     private final RoleRepository roleRepository;
-
-    public RoleService(RoleRepository roleRepository) {
+    private final RoleCatalogue roleCatalogue;
+    private final ApproximateCountService approximateCountService;
+    private final QueryResultCache queryResultCache;
+    private final SortPlanner sortPlanner = new SortPlanner()
+            .uniqueKey("name", "name");
+    private final FilterSpecification<Role> filterSpec = new FilterSpecification<Role>()
+            .field("id", "id", Long.class)
+            .field("name", "name", String.class);
+
+    public RoleService(RoleRepository roleRepository, RoleCatalogue roleCatalogue, ApproximateCountService approximateCountService, QueryResultCache queryResultCache) {
         this.roleRepository = roleRepository;
+        this.roleCatalogue = roleCatalogue;
+        this.approximateCountService = approximateCountService;
+        this.queryResultCache = queryResultCache;
     }
 
     @Override
     public void create(RoleRequest roleRequest) {
         Role role = EntityMapper.mapToEntity(roleRequest, Role.class);
         roleRepository.save(role);
+        roleCatalogue.refreshAfterCommit();
+        queryResultCache.modifiedAfterCommit(QueryResultCache.ROLES);
     }
 
     @Override
@@ -42,6 +58,8 @@ public class RoleService implements IRoleService {
         role.setName(roleRequest.getName().toUpperCase());
 
         roleRepository.save(role);
+        roleCatalogue.refreshAfterCommit();
+        queryResultCache.modifiedAfterCommit(QueryResultCache.ROLES);
     }
 
     @Override
@@ -52,30 +70,89 @@ public class RoleService implements IRoleService {
         role.setActive(false);
 
         roleRepository.delete(role);
+        approximateCountService.roleDeleted(role.getId());
+        roleCatalogue.refreshAfterCommit();
+        queryResultCache.modifiedAfterCommit(QueryResultCache.ROLES);
     }
 
+    // the role table is tiny and cached whole, so listing filters, sorts and pages it in memory
     @Override
-    public PaginationResponse getAll(int page, int size, String filter, String sort, String keyword) {
-        Sort sortDir = sort.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(filter).ascending() : Sort.by(filter).descending();
+    public PaginationResponse getAll(int page, int size, String filter, String sort, String keyword, List<String> where, CountMode countMode) {
+        List<Condition> conditions = FilterSpecification.parse(where);
+        Sort sortDir = sortPlanner.plan(filter, sort);
+        // validates page and size the same way the database-backed listings do
         Pageable pageable = PageRequest.of(page, size, sortDir);
 
-        GenericSpecification<Role> genericSpec = new GenericSpecification<>();
-        List<String> fields = List.of("id", "name");
-
-        Specification<Role> spec = genericSpec.getSpecification(keyword, fields);
-        Page<Role> pages = roleRepository.findAll(spec, pageable);
-        List<RoleResponse> content = pages.stream()
-                .map(user -> EntityMapper.mapToResponse(user, RoleResponse.class))
-                .collect(Collectors.toList());
+        List<RoleResponse> rows = roleCatalogue.findAll().stream()
+                .filter(matches(keyword))
+                .filter(filterSpec.getPredicate(conditions, RoleService::attribute))
+                .sorted(comparator(sortDir))
+                .toList();
+        long offset = pageable.getOffset();
+        List<RoleResponse> content = offset >= rows.size() ? List.of() : rows.subList((int) offset, (int) Math.min(rows.size(), offset + size));
+        boolean last = offset + size >= rows.size();
+
+        if (countMode == CountMode.NONE) {
+            return new PaginationResponse(content, page, size, null, null, last);
+        }
+        // every row is already at hand, so even an approximate count is exact
+        long totalElements = rows.size();
+        return new PaginationResponse(content, page, size, totalElements, (int) Math.ceil((double) totalElements / size), last);
+    }
 
-        return new PaginationResponse(content, page, size, pages.getTotalElements(), pages.getTotalPages(), pages.isLast());
+    @Override
+    public CursorPaginationResponse getAllByCursor(String cursor, int size, String filter, String sort, String keyword, List<String> where) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one.");
+        }
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor, sortPlanner.property(filter), sort);
+        Sort sortDir = sortPlanner.plan(keysetCursor.getField(), keysetCursor.getDirection().name());
+
+        List<RoleResponse> rows = roleCatalogue.findAll().stream()
+                .filter(matches(keyword))
+                .filter(filterSpec.getPredicate(FilterSpecification.parse(where), RoleService::attribute))
+                .filter(keysetCursor.getPredicate(RoleService::attribute))
+                .sorted(comparator(sortDir))
+                .limit(size + 1L)
+                .toList();
+        boolean last = rows.size() <= size;
+        List<RoleResponse> content = last ? rows : rows.subList(0, size);
+        RoleResponse lastRow = content.isEmpty() ? null : content.get(content.size() - 1);
+        String nextCursor = last ? null : keysetCursor.encodeAfter(attribute(lastRow, keysetCursor.getField()), lastRow.id());
+
+        return new CursorPaginationResponse(content, size, nextCursor, last);
     }
 
     @Override
     public RoleResponse getById(Long id) {
-        Role role = roleRepository.findById(id)
+        return roleCatalogue.findById(id)
                 .orElseThrow(() -> new NotFoundException("Role", "id", id.toString()));
+    }
+
+    // same semantics as GenericSpecification over id and name: case-insensitive contains on either
+    private static java.util.function.Predicate<RoleResponse> matches(String keyword) {
+        if (keyword == null) {
+            return role -> true;
+        }
+        String lowered = keyword.toLowerCase();
+        return role -> role.id().toString().contains(lowered) || role.name().toLowerCase().contains(lowered);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<RoleResponse> comparator(Sort sort) {
+        Comparator<RoleResponse> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<RoleResponse> byProperty = Comparator.comparing(role -> (Comparable) attribute(role, order.getProperty()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
 
-        return EntityMapper.mapToResponse(role, RoleResponse.class);
+    private static Object attribute(RoleResponse role, String attribute) {
+        return switch (attribute) {
+            case "id" -> role.id();
+            case "name" -> role.name();
+            default -> throw new IllegalArgumentException("Unknown role attribute " + attribute);
+        };
     }
 }
@@ -0,0 +1,77 @@
+package com.spring.example.service.implement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring.example.payload.response.UserResponse;
+import com.spring.example.util.AfterCommit;
+import com.spring.example.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Service
+public class UserResponseCache implements MeterBinder {
+
+    // user id -> response, or a tombstone left by a write so that loads which started before it cannot cache what they read
+    private final Cache<Long, Entry> responses;
+    // orders loads and writes; an entry only ever replaces one with a lower version
+    private final AtomicLong clock = new AtomicLong();
+    // concurrent misses share a load only if they read the same version, so no caller gets a row read before a write
+    // it has already seen commit
+    private final SingleFlight<Load, UserResponse> loads = new SingleFlight<>();
+
+    public UserResponseCache(@Value("${app.user.response.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${app.user.response.cache.ttl.milliseconds:60000}") long ttlMillis) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+    }
+
+    public UserResponse get(Long id, Supplier<UserResponse> loader) {
+        Entry entry = responses.getIfPresent(id);
+        if (entry != null && entry.response() != null) {
+            return entry.response();
+        }
+        long version = clock.get();
+        UserResponse response = loads.load(new Load(id, version), loader);
+        responses.asMap().compute(id, (key, current) -> {
+            if (current == null) {
+                // a tombstone may have been evicted for size while loading, so only trust an untouched clock
+                return clock.get() == version ? new Entry(version, response) : null;
+            }
+            // a tombstone at the version read before loading was written before the load began, so the load saw its commit
+            boolean newer = current.response() == null ? current.version() <= version : current.version() < version;
+            return newer ? new Entry(version, response) : current;
+        });
+        return response;
+    }
+
+    // the commit, not the write, is what makes the old response stale
+    public void evictAfterCommit(Long id) {
+        AfterCommit.run(() -> evict(id));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "user.responses");
+    }
+
+    private void evict(Long id) {
+        long version = clock.incrementAndGet();
+        responses.asMap().merge(id, new Entry(version, null), (current, tombstone) -> current.version() < version ? tombstone : current);
+    }
+
+    private record Entry(long version, UserResponse response) {
+    }
+
+    private record Load(Long id, long version) {
+    }
+}
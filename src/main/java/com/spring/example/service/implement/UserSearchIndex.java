@@ -0,0 +1,111 @@
+package com.spring.example.service.implement;
+
+import com.spring.example.entity.User;
+import com.spring.example.repository.UserRepository;
+import com.spring.example.repository.UserRepository.SearchView;
+import com.spring.example.util.TrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class UserSearchIndex implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private volatile TrigramIndex index;
+    private volatile TrigramIndex pendingIndex;
+    private volatile Timer rebuildTimer;
+
+    public UserSearchIndex(UserRepository userRepository,
+                           @Value("${app.search.index.enabled:true}") boolean enabled,
+                           @Value("${app.search.index.batch.size:10000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    // also picks up writes made by other instances, and drops postings left behind by updates and deletes
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.index.rebuild.interval.milliseconds:600000}", initialDelayString = "${app.search.index.rebuild.interval.milliseconds:600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        TrigramIndex rebuilt = new TrigramIndex();
+        pendingIndex = rebuilt;
+        Long lastId = 0L;
+        List<SearchView> views;
+        do {
+            views = userRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+            for (SearchView view : views) {
+                rebuilt.put(view.getId(), view.getId().toString(), view.getName(), view.getUsername(), view.getEmail());
+                lastId = view.getId();
+            }
+        } while (views.size() == batchSize);
+        index = rebuilt;
+        pendingIndex = null;
+        Timer timer = rebuildTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void put(User user) {
+        // read the pending index first so a rebuild finishing in between still sees the write
+        TrigramIndex pending = pendingIndex;
+        TrigramIndex current = index;
+        if (current != null) {
+            current.put(user.getId(), user.getId().toString(), user.getName(), user.getUsername(), user.getEmail());
+        }
+        if (pending != null) {
+            pending.put(user.getId(), user.getId().toString(), user.getName(), user.getUsername(), user.getEmail());
+        }
+    }
+
+    public void remove(Long id) {
+        TrigramIndex pending = pendingIndex;
+        TrigramIndex current = index;
+        if (current != null) {
+            current.remove(id);
+        }
+        if (pending != null) {
+            pending.remove(id);
+        }
+    }
+
+    public boolean supports(String keyword) {
+        return index != null && TrigramIndex.supports(keyword);
+    }
+
+    public long[] search(String keyword) {
+        return index.search(keyword);
+    }
+
+    public int size() {
+        TrigramIndex current = index;
+        return current == null ? 0 : current.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.search.index.size", this, UserSearchIndex::size)
+                .description("Users held by the in-memory search index")
+                .register(registry);
+        rebuildTimer = Timer.builder("users.search.index.rebuild")
+                .description("Time taken to rebuild the user search index from the database")
+                .register(registry);
+    }
+}
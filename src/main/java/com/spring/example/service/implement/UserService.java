@@ -6,37 +6,86 @@ import com.spring.example.exception.DataExistsException;
 import com.spring.example.exception.NotFoundException;
 import com.spring.example.payload.request.SignUpRequest;
 import com.spring.example.payload.request.UserRequest;
+import com.spring.example.payload.response.CursorPaginationResponse;
 import com.spring.example.payload.response.PaginationResponse;
 import com.spring.example.payload.response.UserResponse;
 import com.spring.example.repository.RoleRepository;
 import com.spring.example.repository.UserRepository;
+import com.spring.example.security.CustomUserDetailsService;
+import com.spring.example.security.TokenVersionRegistry;
 import com.spring.example.service.IUserService;
+import com.spring.example.util.CountMode;
 import com.spring.example.util.EntityMapper;
+import com.spring.example.util.FilterOperator;
+import com.spring.example.util.FilterSpecification;
+import com.spring.example.util.FilterSpecification.Condition;
 import com.spring.example.util.GenericSpecification;
-import org.springframework.data.domain.Page;
+import com.spring.example.util.KeysetCursor;
+import com.spring.example.util.SortPlanner;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService implements IUserService {
 
+    private static final String[] RESPONSE_ATTRIBUTES = {"id", "name", "username", "email"};
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
+    private final RoleCatalogue roleCatalogue;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final ApproximateCountService approximateCountService;
+    private final UserSearchIndex userSearchIndex;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final UserResponseCache userResponseCache;
+    private final QueryResultCache queryResultCache;
+    // only a cache miss reads the database, so only the loader opens a transaction
+    private final TransactionTemplate readOnlyTransaction;
+    private final int searchIndexMaxCandidates;
+    private final SortPlanner sortPlanner = new SortPlanner()
+            .key("name", "name")
+            .uniqueKey("username", "username")
+            .uniqueKey("email", "email")
+            .key("created_date", "createdDate");
+    private final FilterSpecification<User> filterSpec = new FilterSpecification<User>()
+            .field("id", "id", Long.class)
+            .field("username", "username", String.class)
+            .field("email", "email", String.class)
+            .field("created_date", "createdDate", Date.class)
+            .field("role", "roles.name", String.class);
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, RoleCatalogue roleCatalogue, PasswordEncoder passwordEncoder, TokenVersionRegistry tokenVersionRegistry, ApproximateCountService approximateCountService,
+                       UserSearchIndex userSearchIndex, CustomUserDetailsService customUserDetailsService, UserResponseCache userResponseCache,
+                       QueryResultCache queryResultCache, PlatformTransactionManager transactionManager,
+                       @Value("${app.search.index.max-candidates:1000}") int searchIndexMaxCandidates) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
+        this.roleCatalogue = roleCatalogue;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.approximateCountService = approximateCountService;
+        this.userSearchIndex = userSearchIndex;
+        this.customUserDetailsService = customUserDetailsService;
+        this.userResponseCache = userResponseCache;
+        this.queryResultCache = queryResultCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.searchIndexMaxCandidates = searchIndexMaxCandidates;
     }
 
     @Override
@@ -52,13 +101,17 @@ public class UserService implements IUserService {
         user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
 
         Set<Role> roles = new HashSet<>();
-        Role userRole = roleRepository.findByName("USER")
-                .orElseThrow(() -> new NotFoundException("Role", "name", "user"));
-        roles.add(userRole);
+        Long userRoleId = roleCatalogue.findByName("USER")
+                .orElseThrow(() -> new NotFoundException("Role", "name", "user"))
+                .id();
+        roles.add(roleRepository.getReferenceById(userRoleId));
 
         user.setRoles(roles);
 
         userRepository.save(user);
+        approximateCountService.userCreated(userRoleId);
+        userSearchIndex.put(user);
+        queryResultCache.modifiedAfterCommit(QueryResultCache.USERS);
     }
 
     @Override
@@ -69,6 +122,10 @@ public class UserService implements IUserService {
         user.setName(userRequest.getName());
 
         userRepository.save(user);
+        userSearchIndex.put(user);
+        customUserDetailsService.evict(user);
+        userResponseCache.evictAfterCommit(user.getId());
+        queryResultCache.modifiedAfterCommit(QueryResultCache.USERS);
     }
 
     @Override
@@ -76,31 +133,128 @@ public class UserService implements IUserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User", "id", id.toString()));
         user.setActive(false);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        tokenVersionRegistry.update(user.getId(), user.getTokenVersion());
+        approximateCountService.userDeleted(user.getRoles().stream().map(Role::getId).toList());
+        userSearchIndex.remove(user.getId());
+        customUserDetailsService.evict(user);
+        userResponseCache.evictAfterCommit(user.getId());
+        queryResultCache.modifiedAfterCommit(QueryResultCache.USERS);
     }
 
+    // role renames and grants change which users a role filter matches, so role writes invalidate user pages too
     @Override
-    public PaginationResponse getAll(int page, int size, String filter, String sort, String keyword) {
-        Sort sortDir = sort.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(filter).ascending() : Sort.by(filter).descending();
+    public PaginationResponse getAll(int page, int size, String filter, String sort, String keyword, List<String> where, CountMode countMode) {
+        return queryResultCache.get(List.of(QueryResultCache.USERS, QueryResultCache.ROLES), Arrays.asList(page, size, filter, sort, keyword, where, countMode),
+                () -> readOnlyTransaction.execute(status -> loadPage(page, size, filter, sort, keyword, where, countMode)));
+    }
+
+    private PaginationResponse loadPage(int page, int size, String filter, String sort, String keyword, List<String> where, CountMode countMode) {
+        List<Condition> conditions = FilterSpecification.parse(where);
+        Sort sortDir = sortPlanner.plan(filter, sort);
         Pageable pageable = PageRequest.of(page, size, sortDir);
 
+        if (conditions.isEmpty() && userSearchIndex.supports(keyword)) {
+            long[] ids = userSearchIndex.search(keyword);
+            if (sortPlanner.property(filter).equals("id")) {
+                return getPageOfIds(ids, page, size, sortDir.getOrderFor("id").isAscending());
+            }
+            if (ids.length <= searchIndexMaxCandidates) {
+                List<Long> candidates = Arrays.stream(ids).boxed().toList();
+                List<UserResponse> content = userRepository.findAllProjected(User.class, (root, query, criteriaBuilder) -> root.get("id").in(candidates),
+                        sortDir, pageable.getOffset(), size, UserResponse.class, RESPONSE_ATTRIBUTES);
+
+                return new PaginationResponse(content, page, size, (long) ids.length, (int) Math.ceil((double) ids.length / size), pageable.getOffset() + content.size() >= ids.length);
+            }
+        }
+
         GenericSpecification<User> genericSpec = new GenericSpecification<>();
         List<String> fields = List.of("id", "name", "username", "email");
 
-        Specification<User> spec = genericSpec.getSpecification(keyword, fields);
-        Page<User> pages = userRepository.findAll(spec, pageable);
-        List<UserResponse> content = pages.stream()
-                .map(user -> EntityMapper.mapToResponse(user, UserResponse.class))
+        Specification<User> spec = genericSpec.getSpecification(keyword, fields).and(filterSpec.getSpecification(conditions));
+        List<UserResponse> rows = userRepository.findAllProjected(User.class, spec, sortDir, pageable.getOffset(), size + 1, UserResponse.class, RESPONSE_ATTRIBUTES);
+        boolean last = rows.size() <= size;
+        List<UserResponse> content = last ? rows : rows.subList(0, size);
+
+        Long approximateCount = countMode == CountMode.APPROXIMATE ? getApproximateCount(keyword, conditions) : null;
+        if (countMode == CountMode.EXACT || (countMode == CountMode.APPROXIMATE && approximateCount == null)) {
+            // the last page already tells how many rows there are
+            long totalElements = last && (!rows.isEmpty() || page == 0) ? pageable.getOffset() + rows.size() : userRepository.count(spec);
+            return new PaginationResponse(content, page, size, totalElements, (int) Math.ceil((double) totalElements / size), last);
+        }
+        if (countMode == CountMode.NONE) {
+            return new PaginationResponse(content, page, size, null, null, last);
+        }
+        return new PaginationResponse(content, page, size, approximateCount, (int) Math.ceil((double) approximateCount / size), last);
+    }
+
+    private Long getApproximateCount(String keyword, List<Condition> conditions) {
+        if (keyword != null) {
+            return null;
+        }
+        if (conditions.isEmpty()) {
+            return approximateCountService.countUsers();
+        }
+        Condition condition = conditions.get(0);
+        if (conditions.size() == 1 && condition.field().equals("role") && condition.operator() == FilterOperator.EQ) {
+            return roleCatalogue.findByName(condition.value())
+                    .map(role -> approximateCountService.countUsersByRole(role.id()))
+                    .orElse(0L);
+        }
+        return null;
+    }
+
+    private PaginationResponse getPageOfIds(long[] ids, int page, int size, boolean ascending) {
+        int from = (int) Math.min((long) page * size, ids.length);
+        int to = Math.min(from + size, ids.length);
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ascending ? ids[i] : ids[ids.length - 1 - i]);
+        }
+
+        Map<Long, UserResponse> users = pageIds.isEmpty() ? Map.of() : userRepository.findResponsesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(UserResponse::id, Function.identity()));
+        List<UserResponse> content = pageIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        return new PaginationResponse(content, page, size, pages.getTotalElements(), pages.getTotalPages(), pages.isLast());
+        return new PaginationResponse(content, page, size, (long) ids.length, (int) Math.ceil((double) ids.length / size), to == ids.length);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPaginationResponse getAllByCursor(String cursor, int size, String filter, String sort, String keyword, List<String> where) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one.");
+        }
+        KeysetCursor keysetCursor = KeysetCursor.decode(cursor, sortPlanner.property(filter), sort);
+        Sort sortDir = sortPlanner.plan(keysetCursor.getField(), keysetCursor.getDirection().name());
+
+        GenericSpecification<User> genericSpec = new GenericSpecification<>();
+        List<String> fields = List.of("id", "name", "username", "email");
+
+        Specification<User> spec = genericSpec.getSpecification(keyword, fields)
+                .and(filterSpec.getSpecification(FilterSpecification.parse(where)))
+                .and(keysetCursor.getSpecification());
+        String[] attributes = Stream.concat(Arrays.stream(RESPONSE_ATTRIBUTES), Stream.of(keysetCursor.getField())).distinct().toArray(String[]::new);
+        List<Tuple> rows = userRepository.findAllTuples(User.class, spec, sortDir, 0, size + 1, attributes);
+        boolean last = rows.size() <= size;
+        List<Tuple> window = last ? rows : rows.subList(0, size);
+        List<UserResponse> content = window.stream()
+                .map(row -> new UserResponse(row.get("id", Long.class), row.get("name", String.class), row.get("username", String.class), row.get("email", String.class)))
+                .collect(Collectors.toList());
+        Tuple lastRow = window.isEmpty() ? null : window.get(window.size() - 1);
+        String nextCursor = last ? null : keysetCursor.encodeAfter(lastRow.get(keysetCursor.getField()), lastRow.get("id", Long.class));
 
+        return new CursorPaginationResponse(content, size, nextCursor, last);
+    }
+
+    // no surrounding transaction, so callers waiting on another thread's load do not hold a connection
     @Override
     public UserResponse getById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("User", "id", id.toString()));
-        return EntityMapper.mapToResponse(user, UserResponse.class);
+        return userResponseCache.get(id, () -> userRepository.findResponseById(id)
+                .orElseThrow(() -> new NotFoundException("User", "id", id.toString())));
     }
 }
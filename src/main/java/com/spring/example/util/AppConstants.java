@@ -5,4 +5,5 @@ public class AppConstants {
     public static final String DEFAULT_SIZE = "10";
     public static final String DEFAULT_FILTER = "id";
     public static final String DEFAULT_SORT = "asc";
+    public static final String DEFAULT_COUNT = "exact";
 }
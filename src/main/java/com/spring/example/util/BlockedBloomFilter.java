@@ -0,0 +1,95 @@
+package com.spring.example.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+public class BlockedBloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int BLOCK_BYTES = 64;
+    private static final int BLOCK_BITS = BLOCK_BYTES * Byte.SIZE;
+    private static final int HASHES = 7;
+
+    // one cache line per block, allocated off-heap and shared lock-free between threads
+    private final ByteBuffer blocks;
+    private final int blockCount;
+    private final long capacity;
+    private final LongAdder insertions = new LongAdder();
+
+    public BlockedBloomFilter(long expectedInsertions, int bitsPerEntry) {
+        long bits = Math.max(BLOCK_BITS, expectedInsertions * bitsPerEntry);
+        long blockCount = (bits + BLOCK_BITS - 1) / BLOCK_BITS;
+        if (blockCount * BLOCK_BYTES > Integer.MAX_VALUE - BLOCK_BYTES) {
+            throw new IllegalArgumentException("Bloom filter for " + expectedInsertions + " entries is too large");
+        }
+        this.blockCount = (int) blockCount;
+        this.capacity = expectedInsertions;
+        this.blocks = ByteBuffer.allocateDirect(this.blockCount * BLOCK_BYTES + BLOCK_BYTES).alignedSlice(BLOCK_BYTES);
+    }
+
+    public void put(String key) {
+        long hash = fingerprint(key);
+        int offset = blockOffset(hash);
+        long probe = mix(hash);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) (probe >>> (i * 9)) & (BLOCK_BITS - 1);
+            int index = offset + (bit >>> 6) * Long.BYTES;
+            long mask = 1L << bit;
+            if (((long) WORDS.getOpaque(blocks, index) & mask) == 0) {
+                WORDS.getAndBitwiseOr(blocks, index, mask);
+            }
+        }
+        insertions.increment();
+    }
+
+    public boolean mightContain(String key) {
+        long hash = fingerprint(key);
+        int offset = blockOffset(hash);
+        long probe = mix(hash);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (int) (probe >>> (i * 9)) & (BLOCK_BITS - 1);
+            long word = (long) WORDS.getAcquire(blocks, offset + (bit >>> 6) * Long.BYTES);
+            if ((word & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long insertions() {
+        return insertions.sum();
+    }
+
+    public long sizeInBytes() {
+        return (long) blockCount * BLOCK_BYTES;
+    }
+
+    private int blockOffset(long hash) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32) * BLOCK_BYTES;
+    }
+
+    private static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
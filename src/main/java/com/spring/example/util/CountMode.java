@@ -0,0 +1,16 @@
+package com.spring.example.util;
+
+public enum CountMode {
+    EXACT,
+    NONE,
+    APPROXIMATE;
+
+    public static CountMode from(String value) {
+        for (CountMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Count mode must be one of exact, none or approximate.");
+    }
+}
@@ -1,27 +1,176 @@
 package com.spring.example.util;
 
-import org.modelmapper.ModelMapper;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
 
-import java.util.List;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class EntityMapper {
 
-    private static final ModelMapper modelMapper = new ModelMapper();
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // source class -> target class -> mapper compiled on first use; properties are matched by name and type only once
+    private static final ClassValue<Map<Class<?>, Mapper>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, Mapper> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
 
     public static <T, U> U mapToRequest(T entity, Class<U> requestClass) {
-        return modelMapper.map(entity, requestClass);
+        return map(entity, requestClass);
     }
 
     public static <T, U> U mapToResponse(T entity, Class<U> responseClass) {
-        return modelMapper.map(entity, responseClass);
+        return map(entity, responseClass);
     }
 
     public static <T, U> U mapToEntity(T request, Class<U> entityClass) {
-        return modelMapper.map(request, entityClass);
+        return map(request, entityClass);
     }
 
     public static <T, U> List<U> mapToEntityList(List<T> requestList, Class<U> entityClass) {
-        return requestList.stream().map(request -> modelMapper.map(request, entityClass)).collect(Collectors.toList());
+        return requestList.stream().map(request -> map(request, entityClass)).collect(Collectors.toList());
+    }
+
+    private static <U> U map(Object source, Class<U> targetClass) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+        if (source instanceof HibernateProxy proxy) {
+            source = proxy.getHibernateLazyInitializer().getImplementation();
+        }
+        Class<?> sourceClass = source.getClass();
+        Mapper mapper = MAPPERS.get(sourceClass).computeIfAbsent(targetClass, key -> compile(sourceClass, key));
+        return targetClass.cast(mapper.map(source));
+    }
+
+    private static Mapper compile(Class<?> sourceClass, Class<?> targetClass) {
+        try {
+            Map<String, Method> getters = getters(sourceClass);
+            return targetClass.isRecord() ? compileRecord(getters, targetClass) : compileBean(getters, targetClass);
+        } catch (ReflectiveOperationException | LambdaConversionException e) {
+            throw new IllegalStateException("Cannot map " + sourceClass.getName() + " to " + targetClass.getName(), e);
+        }
+    }
+
+    private static Map<String, Method> getters(Class<?> sourceClass) {
+        Map<String, Method> getters = new HashMap<>();
+        if (sourceClass.isRecord()) {
+            for (RecordComponent component : sourceClass.getRecordComponents()) {
+                getters.put(component.getName(), component.getAccessor());
+            }
+        } else {
+            for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(sourceClass)) {
+                if (descriptor.getReadMethod() != null && descriptor.getReadMethod().getDeclaringClass() != Object.class) {
+                    getters.put(descriptor.getName(), descriptor.getReadMethod());
+                }
+            }
+        }
+        return getters;
+    }
+
+    // records are built in one call to the canonical constructor, each argument read from the matching getter
+    private static Mapper compileRecord(Map<String, Method> getters, Class<?> targetClass) throws ReflectiveOperationException {
+        RecordComponent[] components = targetClass.getRecordComponents();
+        Class<?>[] parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        Constructor<?> constructor = targetClass.getDeclaredConstructor(parameterTypes);
+
+        MethodHandle[] arguments = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            Method getter = getters.get(components[i].getName());
+            arguments[i] = assignable(getter, parameterTypes[i])
+                    ? LOOKUP.unreflect(getter).asType(MethodType.methodType(parameterTypes[i], Object.class))
+                    : MethodHandles.dropArguments(MethodHandles.zero(parameterTypes[i]), 0, Object.class);
+        }
+        MethodHandle handle = MethodHandles.filterArguments(LOOKUP.unreflectConstructor(constructor), 0, arguments);
+        handle = MethodHandles.permuteArguments(handle, MethodType.methodType(targetClass, Object.class), new int[components.length]);
+        return new RecordMapper(handle.asType(MethodType.methodType(Object.class, Object.class)));
+    }
+
+    // beans are instantiated and filled through lambdas spun once per property, so each copy is a plain interface call
+    @SuppressWarnings("unchecked")
+    private static Mapper compileBean(Map<String, Method> getters, Class<?> targetClass) throws ReflectiveOperationException, LambdaConversionException {
+        MethodHandle constructor = LOOKUP.unreflectConstructor(targetClass.getDeclaredConstructor());
+        Supplier<Object> instantiator = (Supplier<Object>) spin(Supplier.class, "get", MethodType.methodType(Object.class), constructor);
+
+        List<Property> properties = new ArrayList<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(targetClass)) {
+            Method getter = getters.get(descriptor.getName());
+            Method setter = descriptor.getWriteMethod();
+            if (setter == null || !assignable(getter, setter.getParameterTypes()[0])) {
+                continue;
+            }
+            Function<Object, Object> read = (Function<Object, Object>) spin(Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class), LOOKUP.unreflect(getter));
+            BiConsumer<Object, Object> write = (BiConsumer<Object, Object>) spin(BiConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, Object.class), LOOKUP.unreflect(setter));
+            properties.add(new Property(read, write));
+        }
+        return new BeanMapper(instantiator, properties.toArray(Property[]::new));
+    }
+
+    private static Object spin(Class<?> functionalInterface, String methodName, MethodType erasedType, MethodHandle implementation) throws LambdaConversionException {
+        MethodType instantiatedType = implementation.type().wrap();
+        if (instantiatedType.returnType() == Void.class) {
+            instantiatedType = instantiatedType.changeReturnType(void.class);
+        }
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, methodName, MethodType.methodType(functionalInterface),
+                    erasedType, implementation, instantiatedType);
+            return callSite.getTarget().invoke();
+        } catch (LambdaConversionException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean assignable(Method getter, Class<?> targetType) {
+        return getter != null && ClassUtils.isAssignable(targetType, getter.getReturnType());
+    }
+
+    private interface Mapper {
+        Object map(Object source);
+    }
+
+    private record RecordMapper(MethodHandle constructor) implements Mapper {
+
+        @Override
+        public Object map(Object source) {
+            try {
+                return constructor.invokeExact(source);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private record Property(Function<Object, Object> read, BiConsumer<Object, Object> write) {
+    }
+
+    private record BeanMapper(Supplier<Object> instantiator, Property[] properties) implements Mapper {
+
+        @Override
+        public Object map(Object source) {
+            Object target = instantiator.get();
+            for (Property property : properties) {
+                property.write().accept(target, property.read().apply(source));
+            }
+            return target;
+        }
     }
 }
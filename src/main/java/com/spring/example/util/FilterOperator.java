@@ -0,0 +1,19 @@
+package com.spring.example.util;
+
+public enum FilterOperator {
+    EQ,
+    PREFIX,
+    GT,
+    GTE,
+    LT,
+    LTE;
+
+    public static FilterOperator from(String value) {
+        for (FilterOperator operator : values()) {
+            if (operator.name().equalsIgnoreCase(value)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Filter operator must be one of eq, prefix, gt, gte, lt or lte.");
+    }
+}
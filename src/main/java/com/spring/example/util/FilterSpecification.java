@@ -0,0 +1,215 @@
+package com.spring.example.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+public class FilterSpecification<T> {
+
+    private static final int MAX_CONDITIONS = 5;
+    private static final int MAX_TEMPLATES = 1000;
+    private static final char ESCAPE = '\\';
+
+    // only fields the database can answer from an index are accepted
+    private final Map<String, Field> fields = new HashMap<>();
+    // filter shape, e.g. "email:eq,role:eq" -> validated fields and operators waiting for values; shapes come from
+    // the request, so the cache is bounded
+    private final Cache<String, Template> templates = Caffeine.newBuilder().maximumSize(MAX_TEMPLATES).build();
+
+    public FilterSpecification<T> field(String name, String attributePath, Class<? extends Comparable<?>> type) {
+        fields.put(name, new Field(attributePath.split("\\."), type));
+        return this;
+    }
+
+    public static List<Condition> parse(List<String> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return List.of();
+        }
+        if (filters.size() > MAX_CONDITIONS) {
+            throw new IllegalArgumentException("At most " + MAX_CONDITIONS + " filters are allowed.");
+        }
+        List<Condition> conditions = new ArrayList<>(filters.size());
+        for (String filter : filters) {
+            String[] parts = filter.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Filter must be written as field:operator:value.");
+            }
+            conditions.add(new Condition(parts[0].toLowerCase(Locale.ROOT), FilterOperator.from(parts[1]), parts[2]));
+        }
+        return conditions;
+    }
+
+    public Specification<T> getSpecification(List<Condition> conditions) {
+        if (conditions.isEmpty()) {
+            return (root, query, criteriaBuilder) -> null;
+        }
+        Template template = template(conditions);
+
+        Object[] values = new Object[conditions.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = template.conditions[i].convert(conditions.get(i).value());
+        }
+        return (root, query, criteriaBuilder) -> template.toPredicate(root, query, criteriaBuilder, values);
+    }
+
+    // the same conditions evaluated against rows already in memory; attributes reads a row by attribute path
+    public <R> java.util.function.Predicate<R> getPredicate(List<Condition> conditions, BiFunction<R, String, Object> attributes) {
+        if (conditions.isEmpty()) {
+            return row -> true;
+        }
+        CompiledCondition[] compiled = template(conditions).conditions;
+        String[] paths = new String[compiled.length];
+        Object[] values = new Object[compiled.length];
+        for (int i = 0; i < values.length; i++) {
+            String value = conditions.get(i).value();
+            paths[i] = String.join(".", compiled[i].field.attributePath);
+            values[i] = compiled[i].operator == FilterOperator.PREFIX ? value : compiled[i].convert(value);
+        }
+        return row -> {
+            for (int i = 0; i < compiled.length; i++) {
+                if (!compiled[i].matches(attributes.apply(row, paths[i]), values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private Template template(List<Condition> conditions) {
+        String shape = conditions.stream()
+                .map(condition -> condition.field() + ":" + condition.operator())
+                .collect(Collectors.joining(","));
+        return templates.get(shape, key -> compile(conditions));
+    }
+
+    private Template compile(List<Condition> conditions) {
+        CompiledCondition[] compiled = new CompiledCondition[conditions.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            Condition condition = conditions.get(i);
+            Field field = fields.get(condition.field());
+            if (field == null) {
+                throw new IllegalArgumentException("Filtering on " + condition.field() + " is not supported. Supported fields are " + String.join(", ", new TreeSet<>(fields.keySet())) + ".");
+            }
+            if (condition.operator() == FilterOperator.PREFIX && field.type != String.class) {
+                throw new IllegalArgumentException("The prefix operator is only supported on text fields.");
+            }
+            compiled[i] = new CompiledCondition(field, condition.operator());
+        }
+        return new Template(compiled);
+    }
+
+    public record Condition(String field, FilterOperator operator, String value) {
+    }
+
+    private record Field(String[] attributePath, Class<?> type) {
+    }
+
+    private record CompiledCondition(Field field, FilterOperator operator) {
+
+        private Object convert(String value) {
+            try {
+                if (field.type == String.class) {
+                    return operator == FilterOperator.PREFIX ? escape(value) + "%" : value;
+                } else if (field.type == Long.class) {
+                    return Long.valueOf(value);
+                } else if (field.type == Date.class) {
+                    return toTimestamp(value);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid filter value: " + value);
+            }
+            throw new IllegalArgumentException("Unsupported filter field type: " + field.type.getSimpleName());
+        }
+
+        // a path through an association is tested with exists, so a user holding several matching roles still comes back,
+        // and is counted, once
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Predicate toPredicate(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, Object value) {
+            String[] attributePath = field.attributePath;
+            if (attributePath.length == 1) {
+                return compare(root.get(attributePath[0]), criteriaBuilder, value);
+            }
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            From<?, ?> from = subquery.correlate((Root) root);
+            for (int i = 0; i < attributePath.length - 1; i++) {
+                from = from.join(attributePath[i]);
+            }
+            subquery.select(criteriaBuilder.literal(1))
+                    .where(compare(from.get(attributePath[attributePath.length - 1]), criteriaBuilder, value));
+            return criteriaBuilder.exists(subquery);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Predicate compare(Path path, CriteriaBuilder criteriaBuilder, Object value) {
+            Comparable comparable = (Comparable) value;
+            return switch (operator) {
+                case EQ -> criteriaBuilder.equal(path, value);
+                case PREFIX -> criteriaBuilder.like(path, (String) value, ESCAPE);
+                case GT -> criteriaBuilder.greaterThan(path, comparable);
+                case GTE -> criteriaBuilder.greaterThanOrEqualTo(path, comparable);
+                case LT -> criteriaBuilder.lessThan(path, comparable);
+                case LTE -> criteriaBuilder.lessThanOrEqualTo(path, comparable);
+            };
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private boolean matches(Object actual, Object value) {
+            if (actual == null) {
+                return false;
+            }
+            if (operator == FilterOperator.PREFIX) {
+                return ((String) actual).startsWith((String) value);
+            }
+            int compared = ((Comparable) actual).compareTo(value);
+            return switch (operator) {
+                case EQ -> compared == 0;
+                case GT -> compared > 0;
+                case GTE -> compared >= 0;
+                case LT -> compared < 0;
+                case LTE -> compared <= 0;
+                case PREFIX -> throw new IllegalStateException();
+            };
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+
+        private static Timestamp toTimestamp(String value) {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return new Timestamp(Long.parseLong(value));
+            }
+            if (value.length() == 10) {
+                return Timestamp.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+            }
+            return Timestamp.from(Instant.parse(value));
+        }
+    }
+
+    private record Template(CompiledCondition[] conditions) {
+
+        private Predicate toPredicate(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder, Object[] values) {
+            Predicate[] predicates = new Predicate[conditions.length];
+            for (int i = 0; i < conditions.length; i++) {
+                predicates[i] = conditions[i].toPredicate(root, query, criteriaBuilder, values[i]);
+            }
+            return criteriaBuilder.and(predicates);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.spring.example.util;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.io.*;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.BiFunction;
+
+public class KeysetCursor {
+
+    private static final String ID = "id";
+
+    private final String field;
+    private final Sort.Direction direction;
+    private final String value;
+    private final Long id;
+
+    private KeysetCursor(String field, Sort.Direction direction, String value, Long id) {
+        this.field = field;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    public static KeysetCursor first(String field, String sort) {
+        Sort.Direction direction = sort.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return new KeysetCursor(field, direction, null, null);
+    }
+
+    public static KeysetCursor decode(String cursor, String field, String sort) {
+        if (!StringUtils.hasText(cursor)) {
+            return first(field, sort);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            String cursorField = in.readUTF();
+            Sort.Direction direction = Sort.Direction.fromString(in.readUTF());
+            String value = in.readUTF();
+            long id = in.readLong();
+            return new KeysetCursor(cursorField, direction, value, id);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    public String encodeAfter(Object lastValue, long lastId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(field);
+            out.writeUTF(direction.name());
+            out.writeUTF(lastValue instanceof Date date ? date.toInstant().toString() : String.valueOf(lastValue));
+            out.writeLong(lastId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> Specification<T> getSpecification() {
+        return (root, query, criteriaBuilder) -> {
+            if (id == null) {
+                return null;
+            }
+            Path<Long> idPath = root.get(ID);
+            Predicate afterId = after(criteriaBuilder, idPath, id);
+            if (ID.equals(field)) {
+                return afterId;
+            }
+            Path<Comparable> path = root.get(field);
+            Comparable lastValue = convert(value, path.getJavaType());
+            return criteriaBuilder.or(
+                    after(criteriaBuilder, path, lastValue),
+                    criteriaBuilder.and(criteriaBuilder.equal(path, lastValue), afterId));
+        };
+    }
+
+    // the same "after the last row" condition evaluated against rows already in memory
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <R> java.util.function.Predicate<R> getPredicate(BiFunction<R, String, Object> attributes) {
+        return row -> {
+            if (id == null) {
+                return true;
+            }
+            int byId = Long.compare((Long) attributes.apply(row, ID), id);
+            if (ID.equals(field)) {
+                return direction.isAscending() ? byId > 0 : byId < 0;
+            }
+            Comparable rowValue = (Comparable) attributes.apply(row, field);
+            int byValue = rowValue.compareTo(convert(value, rowValue.getClass()));
+            int compared = byValue != 0 ? byValue : byId;
+            return direction.isAscending() ? compared > 0 : compared < 0;
+        };
+    }
+
+    private <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder criteriaBuilder, Path<Y> path, Y lastValue) {
+        return direction.isAscending() ? criteriaBuilder.greaterThan(path, lastValue) : criteriaBuilder.lessThan(path, lastValue);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable convert(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            } else if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            } else if (Date.class.isAssignableFrom(type)) {
+                return Timestamp.from(Instant.parse(value));
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        throw new IllegalArgumentException("Cursor pagination is not supported for this sort field.");
+    }
+}
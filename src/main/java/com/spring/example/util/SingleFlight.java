@@ -0,0 +1,49 @@
+package com.spring.example.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+public class SingleFlight<K, V> {
+
+    // key -> load currently running for it; removed as soon as the load finishes, so nothing is cached here
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.spring.example.util;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+
+public class SortPlanner {
+
+    private static final String ID = "id";
+
+    // sort key accepted from the request -> entity property; every property here leads a declared index
+    private final Map<String, String> keys = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    // already a total order, so no id tie-breaker is needed and the single-column unique index serves it
+    private final Set<String> uniqueProperties = new HashSet<>();
+
+    public SortPlanner() {
+        uniqueKey(ID, ID);
+    }
+
+    public SortPlanner key(String name, String property) {
+        keys.put(name, property);
+        keys.put(property, property);
+        names.add(name);
+        return this;
+    }
+
+    public SortPlanner uniqueKey(String name, String property) {
+        uniqueProperties.add(property);
+        return key(name, property);
+    }
+
+    public String property(String key) {
+        String property = keys.get(key);
+        if (property == null) {
+            throw new IllegalArgumentException("Sorting by " + key + " is not supported. Supported sort keys are " + String.join(", ", names) + ".");
+        }
+        return property;
+    }
+
+    public Sort plan(String key, String sort) {
+        String property = property(key);
+        Sort.Direction direction = sort.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort planned = Sort.by(direction, property);
+        return uniqueProperties.contains(property) ? planned : planned.and(Sort.by(direction, ID));
+    }
+}
@@ -0,0 +1,132 @@
+package com.spring.example.util;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TrigramIndex {
+
+    public static final int MIN_KEYWORD_LENGTH = 3;
+
+    private static final long[] EMPTY = new long[0];
+
+    // trigram packed as three 16-bit chars -> ids of every entry that ever contained it
+    private final Map<Long, Postings> postings = new ConcurrentHashMap<>();
+    // id -> lower-cased fields, used to verify candidates and to skip stale postings
+    private final Map<Long, String[]> entries = new ConcurrentHashMap<>();
+
+    public static boolean supports(String keyword) {
+        return keyword != null && keyword.length() >= MIN_KEYWORD_LENGTH;
+    }
+
+    public void put(long id, String... fields) {
+        String[] lowerFields = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            lowerFields[i] = fields[i] == null ? "" : fields[i].toLowerCase(Locale.ROOT);
+        }
+        entries.put(id, lowerFields);
+        for (long trigram : trigrams(lowerFields)) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+        }
+    }
+
+    public void remove(long id) {
+        entries.remove(id);
+    }
+
+    public long[] search(String keyword) {
+        if (!supports(keyword)) {
+            throw new IllegalArgumentException("Keyword must have at least " + MIN_KEYWORD_LENGTH + " characters");
+        }
+        String lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+        Postings smallest = null;
+        for (long trigram : trigrams(new String[]{lowerKeyword})) {
+            Postings candidate = postings.get(trigram);
+            if (candidate == null) {
+                return EMPTY;
+            }
+            if (smallest == null || candidate.size() < smallest.size()) {
+                smallest = candidate;
+            }
+        }
+
+        long[] candidates = smallest.snapshot();
+        Arrays.sort(candidates);
+        long[] matches = new long[candidates.length];
+        int size = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            long id = candidates[i];
+            if (i > 0 && candidates[i - 1] == id) {
+                continue;
+            }
+            String[] fields = entries.get(id);
+            if (fields != null && contains(fields, lowerKeyword)) {
+                matches[size++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, size);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int trigramCount() {
+        return postings.size();
+    }
+
+    private static boolean contains(String[] fields, String keyword) {
+        for (String field : fields) {
+            if (field.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] trigrams(String[] fields) {
+        int count = 0;
+        for (String field : fields) {
+            count += Math.max(0, field.length() - 2);
+        }
+        long[] trigrams = new long[count];
+        int size = 0;
+        for (String field : fields) {
+            for (int i = 0; i + 2 < field.length(); i++) {
+                trigrams[size++] = ((long) field.charAt(i) << 32) | ((long) field.charAt(i + 1) << 16) | field.charAt(i + 2);
+            }
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private int size;
+
+        private synchronized void add(long id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            ids[size++] = id;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized long[] snapshot() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
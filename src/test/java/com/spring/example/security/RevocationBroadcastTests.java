@@ -0,0 +1,66 @@
+package com.spring.example.security;
+
+import com.spring.example.ExampleApplication;
+import com.spring.example.entity.User;
+import com.spring.example.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationBroadcastTests {
+
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @AfterEach
+    void tearDown() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    @Test
+    void revocationOnOneNodeReachesTheOther(@TempDir Path firstLog, @TempDir Path secondLog) throws InterruptedException {
+        first = start(firstLog);
+        second = start(secondLog);
+
+        JwtTokenProvider firstProvider = first.getBean(JwtTokenProvider.class);
+        JwtTokenProvider secondProvider = second.getBean(JwtTokenProvider.class);
+        User admin = first.getBean(UserRepository.class).findByUsername("admin").orElseThrow();
+        String token = firstProvider.generateToken(admin);
+        assertFalse(secondProvider.isTokenRevoked(token));
+
+        firstProvider.revokeToken(token);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!secondProvider.isTokenRevoked(token) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(secondProvider.isTokenRevoked(token));
+    }
+
+    private static ConfigurableApplicationContext start(Path revocationLog) {
+        return new SpringApplicationBuilder(ExampleApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:revocation-broadcast;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.show-sql=false",
+                "--app.revocation.log.directory=" + revocationLog,
+                "--app.revocation.broadcast.poll.interval.milliseconds=100",
+                "--app.revocation.broadcast.settle.milliseconds=0");
+    }
+}
@@ -0,0 +1,41 @@
+package com.spring.example.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RevocationLogTests {
+
+    @Test
+    void secondInstanceOnTheSameDirectoryFailsAtStartup(@TempDir Path directory) {
+        RevocationLog first = new RevocationLog(true, directory.toString(), 1024);
+        first.replay((tokenId, expiresAt) -> {
+        });
+        try {
+            RevocationLog second = new RevocationLog(true, directory.toString(), 1024);
+            assertThrows(IllegalStateException.class, () -> second.replay((tokenId, expiresAt) -> {
+            }));
+        } finally {
+            first.close();
+        }
+        RevocationLog restarted = new RevocationLog(true, directory.toString(), 1024);
+        restarted.replay((tokenId, expiresAt) -> {
+        });
+        restarted.close();
+    }
+
+    @Test
+    void recordLargerThanASegmentIsRejected(@TempDir Path directory) {
+        RevocationLog log = new RevocationLog(true, directory.toString(), 64);
+        log.replay((tokenId, expiresAt) -> {
+        });
+        try {
+            assertThrows(IllegalArgumentException.class, () -> log.append("x".repeat(64), System.currentTimeMillis() + 60_000));
+        } finally {
+            log.close();
+        }
+    }
+}
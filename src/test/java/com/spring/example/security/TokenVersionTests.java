@@ -0,0 +1,60 @@
+package com.spring.example.security;
+
+import com.spring.example.ExampleApplication;
+import com.spring.example.entity.User;
+import com.spring.example.repository.UserRepository;
+import com.spring.example.service.IUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenVersionTests {
+
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @AfterEach
+    void tearDown() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    @Test
+    void deletedUsersTokenIsRejectedByANodeStartedAfterTheDelete(@TempDir Path firstLog, @TempDir Path secondLog) {
+        first = start(firstLog);
+        JwtTokenProvider firstProvider = first.getBean(JwtTokenProvider.class);
+        User user = first.getBean(UserRepository.class).findByUsername("user").orElseThrow();
+        String token = firstProvider.generateToken(user);
+        assertFalse(firstProvider.isTokenRevoked(token));
+
+        first.getBean(IUserService.class).delete(user.getId());
+        assertTrue(firstProvider.isTokenRevoked(token));
+
+        second = start(secondLog);
+        assertTrue(second.getBean(JwtTokenProvider.class).isTokenRevoked(token));
+    }
+
+    private static ConfigurableApplicationContext start(Path revocationLog) {
+        return new SpringApplicationBuilder(ExampleApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:token-version;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.show-sql=false",
+                "--app.revocation.log.directory=" + revocationLog);
+    }
+}
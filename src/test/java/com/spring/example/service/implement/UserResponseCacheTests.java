@@ -0,0 +1,91 @@
+package com.spring.example.service.implement;
+
+import com.spring.example.payload.response.UserResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserResponseCacheTests {
+
+    private static final UserResponse OLD = new UserResponse(1L, "old", "user", "user@example.com");
+    private static final UserResponse NEW = new UserResponse(1L, "new", "user", "user@example.com");
+
+    private final UserResponseCache cache = new UserResponseCache(100, 60_000);
+
+    @Test
+    void responseIsCachedAgainAfterAnEviction() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return OLD;
+        });
+        cache.evictAfterCommit(1L);
+        for (int i = 0; i < 2; i++) {
+            cache.get(1L, () -> {
+                loads.incrementAndGet();
+                return NEW;
+            });
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadOverlappingAnEvictionDoesNotPopulateTheCache() {
+        AtomicReference<UserResponse> row = new AtomicReference<>(OLD);
+
+        UserResponse loaded = cache.get(1L, () -> {
+            UserResponse read = row.get();
+            // an update commits after the row was read but before the load finishes
+            row.set(NEW);
+            cache.evictAfterCommit(1L);
+            return read;
+        });
+
+        assertEquals(OLD, loaded);
+        assertEquals(NEW, cache.get(1L, row::get));
+    }
+
+    @Test
+    void requestArrivingAfterAWriteDoesNotJoinALoadThatStartedBeforeIt() throws Exception {
+        AtomicReference<UserResponse> row = new AtomicReference<>(OLD);
+        CountDownLatch leaderRead = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        CompletableFuture<UserResponse> leader = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            UserResponse read = row.get();
+            leaderRead.countDown();
+            await(releaseLeader);
+            return read;
+        }));
+        assertTrue(leaderRead.await(5, TimeUnit.SECONDS));
+
+        row.set(NEW);
+        cache.evictAfterCommit(1L);
+        UserResponse waiter = cache.get(1L, row::get);
+        releaseLeader.countDown();
+
+        assertEquals(NEW, waiter);
+        assertEquals(OLD, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(NEW, cache.get(1L, () -> {
+            throw new AssertionError("expected a cached response");
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
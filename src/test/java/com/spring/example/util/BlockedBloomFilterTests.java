@@ -0,0 +1,38 @@
+package com.spring.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlockedBloomFilterTests {
+
+    private static final int ENTRIES = 1_000_000;
+
+    @Test
+    void millionTokenIdsFitInAboutOneMegabyteWithLowFalsePositiveRate() {
+        BlockedBloomFilter filter = new BlockedBloomFilter(ENTRIES, 10);
+        String[] tokenIds = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            tokenIds[i] = UUID.randomUUID().toString();
+            filter.put(tokenIds[i]);
+        }
+
+        for (String tokenId : tokenIds) {
+            assertTrue(filter.mightContain(tokenId));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < ENTRIES; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        double falsePositiveRate = (double) falsePositives / ENTRIES;
+
+        assertEquals(1_250_048, filter.sizeInBytes());
+        assertTrue(falsePositiveRate < 0.015, "false positive rate was " + falsePositiveRate);
+    }
+}